@@ -0,0 +1,78 @@
+package de.mxapplications.androiddrawersheet;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput and, with the gc profiler, the allocation of {@link DrawerDragCore} per processed move and release event.
+ * Run it with: gradle :androiddrawersheet-benchmark:jmh
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DrawerDragCoreBenchmark {
+    private static final int ROOT_EXTENT = 1920;
+    private static final int OFFSET = 144;
+    private static final int FULL_SIZE = 1776;
+    private static final int EVENT_COUNT = 256;
+
+    private DrawerDragCore mDragCore;
+    private float[] mCoordinates;
+    private float[] mVelocities;
+    private int[] mDetentTable;
+    private int mIndex;
+
+    @Setup
+    public void setUp(){
+        mDragCore = new DrawerDragCore(24, 150, 4000f * 3f);
+        mCoordinates = new float[EVENT_COUNT];
+        mVelocities = new float[EVENT_COUNT];
+        for(int i = 0; i < EVENT_COUNT; i++){
+            // A drag of a bottom drawer from its offset to the top of the screen and back, with varying release velocities.
+            mCoordinates[i] = ROOT_EXTENT - OFFSET - (float) Math.abs(Math.sin(i * Math.PI / EVENT_COUNT)) * FULL_SIZE;
+            mVelocities[i] = (i % 2 == 0 ? 1 : -1) * i * 40f;
+        }
+        mDetentTable = new int[]{OFFSET, 480, FULL_SIZE / 2, FULL_SIZE};
+        mDragCore.down(DrawerDragCore.rawSize(mCoordinates[0], ROOT_EXTENT, DrawerDragCore.SIGN_NEGATIVE));
+        mDragCore.startDrag(DrawerDragCore.rawSize(mCoordinates[0], ROOT_EXTENT, DrawerDragCore.SIGN_NEGATIVE), OFFSET);
+    }
+
+    private int nextIndex(){
+        mIndex = (mIndex + 1) % EVENT_COUNT;
+        return mIndex;
+    }
+
+    @Benchmark
+    public int move(){
+        int rawSize = DrawerDragCore.rawSize(mCoordinates[nextIndex()], ROOT_EXTENT, DrawerDragCore.SIGN_NEGATIVE);
+        if(!mDragCore.exceedsTouchSlop(rawSize)){
+            return OFFSET;
+        }
+        return mDragCore.dragSize(rawSize, OFFSET, FULL_SIZE);
+    }
+
+    @Benchmark
+    public int releaseSticky(){
+        int index = nextIndex();
+        int releaseSize = mDragCore.releaseSize(DrawerDragCore.rawSize(mCoordinates[index], ROOT_EXTENT, DrawerDragCore.SIGN_NEGATIVE));
+        float velocity = mDragCore.effectiveVelocity(DrawerDragCore.openingVelocity(mVelocities[index], DrawerDragCore.SIGN_NEGATIVE));
+        int size = DrawerDragCore.snap(mDragCore.project(releaseSize, velocity, OFFSET, FULL_SIZE), OFFSET, FULL_SIZE, null, 0, 0, true);
+        return size + DrawerDragCore.settleDuration(size - releaseSize, velocity, 250, FULL_SIZE - OFFSET);
+    }
+
+    @Benchmark
+    public int releaseDetents(){
+        int index = nextIndex();
+        int releaseSize = mDragCore.releaseSize(DrawerDragCore.rawSize(mCoordinates[index], ROOT_EXTENT, DrawerDragCore.SIGN_NEGATIVE));
+        float velocity = mDragCore.effectiveVelocity(DrawerDragCore.openingVelocity(mVelocities[index], DrawerDragCore.SIGN_NEGATIVE));
+        int size = DrawerDragCore.snap(mDragCore.project(releaseSize, velocity, OFFSET, FULL_SIZE), OFFSET, FULL_SIZE, mDetentTable, 0, 0, false);
+        return size + DrawerDragCore.settleDuration(size - releaseSize, velocity, 250, FULL_SIZE - OFFSET);
+    }
+}
@@ -3,54 +3,157 @@ package de.mxapplications.androiddrawersheet;
 import android.annotation.TargetApi;
 import android.content.Context;
 import android.content.res.TypedArray;
+import android.graphics.Canvas;
+import android.graphics.LinearGradient;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.Shader;
 import android.os.Build;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
 import android.os.Parcel;
 import android.os.Parcelable;
+import android.os.Process;
+import android.support.v4.view.NestedScrollingParent;
+import android.support.v4.view.NestedScrollingParentHelper;
+import android.support.v4.view.ViewCompat;
 import android.util.AttributeSet;
+import android.util.TypedValue;
 import android.view.Gravity;
+import android.view.LayoutInflater;
 import android.view.MotionEvent;
+import android.view.VelocityTracker;
 import android.view.View;
+import android.view.ViewConfiguration;
 import android.view.ViewGroup;
 import android.view.ViewOutlineProvider;
-import android.view.ViewTreeObserver;
+import android.view.animation.AnimationUtils;
+import android.view.animation.DecelerateInterpolator;
+import android.view.animation.Interpolator;
 import android.widget.FrameLayout;
 import android.widget.RelativeLayout;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
+import java.util.concurrent.Executor;
 
 /**
  * Google calls it navigation drawer or bottom sheet: This drawer sheet can be opened from the left, right, top, and bottom and is displayed on top of the rest of the content.
  *
  * Created by Sebastian Dombrowski on 10/19/2015.
  */
-public class AndroidDrawerSheet extends FrameLayout {
+public class AndroidDrawerSheet extends FrameLayout implements NestedScrollingParent {
     public static final int ALIGNMENT_TOP = 1;
     public static final int ALIGNMENT_BOTTOM = 2;
     public static final int ALIGNMENT_LEFT = 3;
     public static final int ALIGNMENT_RIGHT = 4;
 
+    public static final int POSITIONING_MODE_RESIZE = 1;
+    public static final int POSITIONING_MODE_TRANSLATE = 2;
+
     private static final int DRAWER_STATE_CLOSED = 1;
     private static final int DRAWER_STATE_OPEN = 2;
 
-    private FrameLayout mInnerContainer;
+    private static final int DEFAULT_SETTLE_DURATION = 250;
+    private static final int DEFAULT_EDGE_WIDTH_DP = 20;
+    private static final int CONTENT_SIZE_CACHE_SIZE = 4;
+
+    private DrawerContainer mInnerContainer;
 
     private int mAlignment = ALIGNMENT_BOTTOM;
     private boolean mInvisibleOffset = false;
     private int mOffset = 0;
     private DrawerListener mDrawerListener;
     private boolean mDragging = false;
+    private NestedScrollingParentHelper mNestedScrollingParentHelper;
+    private boolean mNestedScrolling = false;
+    private float mNestedFlingVelocity = 0;
     private int mFullSize;
     private int mDrawerState=DRAWER_STATE_CLOSED;
     private Context mContext;
     private int mMinimumOpeningSize = 0;
     private int mMinimumClosingSize = 0;
     private boolean mStickyDrag = true;
+    private int mPositioningMode = POSITIONING_MODE_RESIZE;
+    private int mSize;
+    private int mSettleDuration = DEFAULT_SETTLE_DURATION;
+    private Interpolator mSettleInterpolator = new DecelerateInterpolator();
+    private SettleAnimation mSettleAnimation = new SettleAnimation();
+    private boolean mStateChangePending = false;
+    private boolean mFrameScheduled = false;
+    private DrawerSheetCoordinator mCoordinator;
+    private DrawerMetrics mMetrics;
+    private long mFrameRequestNanos = 0;
+    private boolean mDragPending = false;
+    private int mPendingDragSize;
+    private final Runnable mFrameCallback = new Runnable() {
+        @Override
+        public void run() {
+            mFrameScheduled = false;
+            doFrame();
+        }
+    };
+    private int[] mDetentSizes = new int[0];
+    private float[] mDetentFractions = new float[0];
+    private int[] mDetentTable;
+    private int mDetentTableFullSize = -1;
+    private int mDetentTableOffset = -1;
+    private int mCurrentDetent = 0;
+    private float mRestoredProgress = -1;
+    private int mRestoredDetent = -1;
+    private final Runnable mRestoreCallback = new Runnable() {
+        @Override
+        public void run() {
+            finishRestore();
+        }
+    };
+    private int mScrimColor = 0;
+    private final Paint mScrimPaint = new Paint();
+    private final Rect mScrimBounds = new Rect();
+    private final Rect mClipBounds = new Rect();
+    private final Rect mShadowBounds = new Rect();
+    private final int[] mWindowLocation = new int[2];
+    private int mRootWidth;
+    private int mRootHeight;
+    private boolean mDrawerOpaque = false;
+    private boolean mHardwareLayer = false;
+    private boolean mContentLayerEnabled = false;
+    private boolean mContentSized = false;
+    private int mMaximumOpenSize = 0;
+    private boolean mApplyingSize = false;
+    private int mContentLayoutGeneration = 0;
+    private boolean mContentLayoutChecked = false;
+    private int mContentSizeCacheGeneration = -1;
+    private int mContentSizeCacheCount = 0;
+    private int mContentSizeCacheNext = 0;
+    private final int[] mContentSizeCacheWidthSpecs = new int[CONTENT_SIZE_CACHE_SIZE];
+    private final int[] mContentSizeCacheHeightSpecs = new int[CONTENT_SIZE_CACHE_SIZE];
+    private final int[] mContentSizeCacheSizes = new int[CONTENT_SIZE_CACHE_SIZE];
+    private int mContentLayout = 0;
+    private int mPlaceholderLayout = 0;
+    private boolean mPreInflateContent = false;
+    private boolean mHideClosedContent = false;
+    private boolean mEdgeSwipe = false;
+    private int mEdgeWidth;
+    private PreInflateTask mPreInflateTask;
+    private View mContent;
+    private View mPlaceholder;
+
+    private static HandlerThread sInflaterThread;
+    private static Handler sInflaterHandler;
+    private static int sPendingInflations = 0;
+    private static Handler sMainHandler;
 
     private AlignmentStrategy mAlignmentStrategy;
+    private final AlignmentStrategy[] mAlignmentStrategies = new AlignmentStrategy[4];
+    private Editor mEditor;
 
-    private List<OnInteractionListener> onInteractionListenerList = new ArrayList<>();
-    private List<OnResizeListener> onResizeListenerList = new ArrayList<>();
+    // The listener arrays are never modified, adding or removing a listener replaces the array. Listeners are notified
+    // from a snapshot of the array, so they can add or remove listeners while being notified and the dispatch does not allocate.
+    private OnInteractionListener[] onInteractionListeners = new OnInteractionListener[0];
+    private OnResizeListener[] onResizeListeners = new OnResizeListener[0];
+    private OnProgressListener[] onProgressListeners = new OnProgressListener[0];
+    private OnDetentChangeListener[] onDetentChangeListeners = new OnDetentChangeListener[0];
 
     /***
      * Constructs the CheckableGridView .
@@ -109,10 +212,453 @@ public class AndroidDrawerSheet extends FrameLayout {
 
     @Override
     protected void onSizeChanged(int w, int h, int oldw, int oldh) {
-        mFullSize = mAlignmentStrategy.getSize(this);
+        if(!mContentSized) {
+            int oldFullSize = mFullSize;
+            mFullSize = mAlignmentStrategy.getSize(this);
+            if (mPositioningMode == POSITIONING_MODE_TRANSLATE && mDrawerState == DRAWER_STATE_OPEN && mSize == oldFullSize) {
+                mSize = mFullSize;
+            }
+        }
         super.onSizeChanged(w, h, oldw, oldh);
     }
 
+    /***
+     * Measures the drawer and its inner container in a single pass. The inner container is measured once per measure pass of the drawer with the size
+     * stored in its layout parameters and is placed at the aligned edge in {@link #onLayout(boolean, int, int, int, int)}.
+     * A hidden inner container (see {@link #setHideClosedContent(boolean)}) is neither measured nor laid out.
+     */
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        int width = getDefaultSize(getSuggestedMinimumWidth(), widthMeasureSpec);
+        int height = getDefaultSize(getSuggestedMinimumHeight(), heightMeasureSpec);
+        setMeasuredDimension(width, height);
+        if(mContentSized){
+            updateContentSize(widthMeasureSpec, heightMeasureSpec, width, height);
+        }
+        if(mRestoredProgress >= 0){
+            applyRestoredSize();
+        }
+        if(mInnerContainer.getVisibility() != GONE) {
+            measureChildWithMargins(mInnerContainer, MeasureSpec.makeMeasureSpec(width, MeasureSpec.EXACTLY), 0,
+                    MeasureSpec.makeMeasureSpec(height, MeasureSpec.EXACTLY), 0);
+        }
+    }
+
+    /***
+     * Moves a restored open drawer to its saved position in the first measure pass after the state has been restored.
+     */
+    private void applyRestoredSize(){
+        if(!mContentSized){
+            mFullSize = mAlignmentStrategy.getSize(this);
+        }
+        int[] detentTable = getDetentTable();
+        int size;
+        if(mRestoredDetent >= 0 && mRestoredDetent < detentTable.length){
+            size = detentTable[mRestoredDetent];
+        }else{
+            size = mOffset + Math.round(mRestoredProgress * (mFullSize - mOffset));
+        }
+        size = DrawerDragCore.clamp(size, mOffset, Math.max(mFullSize, mOffset));
+        mRestoredProgress = -1;
+        mRestoredDetent = -1;
+        mSize = size;
+        if(mPositioningMode == POSITIONING_MODE_RESIZE){
+            // The inner container is measured right after this, so its layout parameters are changed without requesting another layout.
+            mAlignmentStrategy.setSize(mInnerContainer.getLayoutParams(), size);
+        }
+        // The listeners may change the layout, so they are not called from within the measure pass.
+        removeCallbacks(mRestoreCallback);
+        post(mRestoreCallback);
+    }
+
+    /***
+     * Notifies the coordinator and the listeners of a restored open drawer, unless it has been moved or closed in the meantime.
+     */
+    private void finishRestore(){
+        if(mDrawerState != DRAWER_STATE_OPEN || mDragging || mNestedScrolling || mSettleAnimation.isRunning()){
+            return;
+        }
+        if(mCoordinator != null){
+            mCoordinator.onDrawerOpening(this, false);
+        }
+        notifyOnResizeListeners(mSize);
+        finishSettling();
+    }
+
+    /***
+     * Determines the open size of a content-sized drawer, which is cached until the measure specs or the content change.
+     * @param widthMeasureSpec The width measure spec of the drawer.
+     * @param heightMeasureSpec The height measure spec of the drawer.
+     * @param width The measured width of the drawer.
+     * @param height The measured height of the drawer.
+     */
+    private void updateContentSize(int widthMeasureSpec, int heightMeasureSpec, int width, int height){
+        // A child can request a layout while the inner container already waits for one, so that request is not counted by the container.
+        if(!mContentLayoutChecked) {
+            mContentLayoutChecked = true;
+            for (int i = 0; i < mInnerContainer.getChildCount(); i++) {
+                if (mInnerContainer.getChildAt(i).isLayoutRequested()) {
+                    mContentLayoutGeneration++;
+                    break;
+                }
+            }
+        }
+        if(mContentSizeCacheGeneration != mContentLayoutGeneration){
+            mContentSizeCacheGeneration = mContentLayoutGeneration;
+            mContentSizeCacheCount = 0;
+        }
+
+        int fullSize = -1;
+        for(int i = 0; i < mContentSizeCacheCount; i++){
+            if(mContentSizeCacheWidthSpecs[i] == widthMeasureSpec && mContentSizeCacheHeightSpecs[i] == heightMeasureSpec){
+                fullSize = mContentSizeCacheSizes[i];
+                break;
+            }
+        }
+        if(fullSize < 0) {
+            ViewGroup.LayoutParams layoutParams = mInnerContainer.getLayoutParams();
+            int size = mAlignmentStrategy.getSize(layoutParams);
+            mAlignmentStrategy.setSize(layoutParams, ViewGroup.LayoutParams.WRAP_CONTENT);
+            measureChildWithMargins(mInnerContainer, MeasureSpec.makeMeasureSpec(width, MeasureSpec.EXACTLY), 0,
+                    MeasureSpec.makeMeasureSpec(height, MeasureSpec.EXACTLY), 0);
+            mAlignmentStrategy.setSize(layoutParams, size);
+            fullSize = mAlignmentStrategy.getSize(mInnerContainer);
+            if(mMaximumOpenSize > 0){
+                fullSize = Math.min(fullSize, mMaximumOpenSize);
+            }
+            fullSize = Math.max(fullSize, mOffset);
+
+            mContentSizeCacheWidthSpecs[mContentSizeCacheNext] = widthMeasureSpec;
+            mContentSizeCacheHeightSpecs[mContentSizeCacheNext] = heightMeasureSpec;
+            mContentSizeCacheSizes[mContentSizeCacheNext] = fullSize;
+            mContentSizeCacheNext = (mContentSizeCacheNext + 1) % CONTENT_SIZE_CACHE_SIZE;
+            mContentSizeCacheCount = Math.min(mContentSizeCacheCount + 1, CONTENT_SIZE_CACHE_SIZE);
+        }
+
+        ViewGroup.LayoutParams layoutParams = mInnerContainer.getLayoutParams();
+        if(fullSize != mFullSize){
+            boolean resting = !mDragging && !mSettleAnimation.isRunning();
+            if(resting && mDrawerState == DRAWER_STATE_OPEN && mSize == mFullSize){
+                mSize = fullSize;
+                if(mPositioningMode == POSITIONING_MODE_RESIZE) {
+                    mAlignmentStrategy.setSize(layoutParams, fullSize);
+                }
+            }
+            mFullSize = fullSize;
+        }
+        if(mPositioningMode == POSITIONING_MODE_TRANSLATE){
+            mAlignmentStrategy.setSize(layoutParams, mFullSize);
+        }
+    }
+
+    @Override
+    protected void onLayout(boolean changed, int left, int top, int right, int bottom) {
+        mContentLayoutChecked = false;
+        if(changed){
+            updateWindowGeometry();
+        }
+        if(mInnerContainer.getVisibility() == GONE){
+            return;
+        }
+        mAlignmentStrategy.layoutContent(mInnerContainer, right - left, bottom - top);
+        if(mPositioningMode == POSITIONING_MODE_TRANSLATE){
+            setDrawerSize(mSize);
+        }
+    }
+
+    /***
+     * Caches the offset of the AndroidDrawerSheet in its window and the size of the root view, which are used to convert touch positions to raw sizes.
+     */
+    private void updateWindowGeometry(){
+        getLocationInWindow(mWindowLocation);
+        View rootView = getRootView();
+        mRootWidth = rootView.getWidth();
+        mRootHeight = rootView.getHeight();
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        // The drawer is attached before its parent is measured, so changing the layout parameters here does not need another layout pass.
+        mAlignmentStrategy.setOuterAlignment();
+        if(mPreInflateContent){
+            preInflateContent();
+        }
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        cancelPreInflation();
+        if(mFrameScheduled){
+            mFrameScheduled = false;
+            removeCallbacks(mFrameCallback);
+        }
+        if(mCoordinator != null){
+            mCoordinator.onDrawerDetached(this);
+        }
+        // A detached drawer does not see the end of its touch, so a shared velocity tracker would stay locked.
+        mDrawerListener.cancelTracking();
+        removeCallbacks(mRestoreCallback);
+        flushDrag();
+        mSettleAnimation.end();
+        super.onDetachedFromWindow();
+    }
+
+    @Override
+    public boolean onInterceptTouchEvent(MotionEvent ev) {
+        DrawerMetrics metrics = mMetrics;
+        if(metrics == null){
+            mDrawerListener.onTouch(ev);
+        }else {
+            long start = System.nanoTime();
+            mDrawerListener.onTouch(ev);
+            metrics.onTouch(System.nanoTime() - start);
+        }
+        return mDragging;
+    }
+
+    /***
+     * Stops tracking the current touch if a child takes it over, because the drawer does not see the end of that touch.
+     */
+    @Override
+    public void requestDisallowInterceptTouchEvent(boolean disallowIntercept) {
+        if(disallowIntercept && !mDragging){
+            mDrawerListener.cancelTracking();
+        }
+        super.requestDisallowInterceptTouchEvent(disallowIntercept);
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        DrawerMetrics metrics = mMetrics;
+        if(metrics == null){
+            return mDrawerListener.onTouch(event);
+        }
+        long start = System.nanoTime();
+        boolean tracking = mDrawerListener.onTouch(event);
+        metrics.onTouch(System.nanoTime() - start);
+        return tracking;
+    }
+
+    @Override
+    public boolean onStartNestedScroll(View child, View target, int nestedScrollAxes) {
+        return (nestedScrollAxes & mAlignmentStrategy.getNestedScrollAxis()) != 0 && !mDragging;
+    }
+
+    @Override
+    public void onNestedScrollAccepted(View child, View target, int axes) {
+        mNestedScrollingParentHelper.onNestedScrollAccepted(child, target, axes);
+        mNestedScrolling = false;
+        mNestedFlingVelocity = 0;
+    }
+
+    @Override
+    public int getNestedScrollAxes() {
+        return mNestedScrollingParentHelper.getNestedScrollAxes();
+    }
+
+    @Override
+    public void onNestedPreScroll(View target, int dx, int dy, int[] consumed) {
+    }
+
+    /***
+     * The scrollable child scrolls first, whatever it does not consume moves the drawer with the next frame.
+     */
+    @Override
+    public void onNestedScroll(View target, int dxConsumed, int dyConsumed, int dxUnconsumed, int dyUnconsumed) {
+        int delta = mAlignmentStrategy.getOpeningScrollDelta(dxUnconsumed, dyUnconsumed);
+        if(delta == 0){
+            return;
+        }
+        if(!mNestedScrolling){
+            mNestedScrolling = true;
+            if(mMetrics != null){
+                mMetrics.beginGesture();
+                mMetrics.beginCycle();
+            }
+            inflateContent();
+            showContent();
+            mSettleAnimation.cancel();
+            setContentLayerEnabled(true);
+        }
+        mPendingDragSize = DrawerDragCore.clamp((mDragPending ? mPendingDragSize : mSize) + delta, mOffset, mFullSize);
+        mDragPending = true;
+        scheduleFrame();
+    }
+
+    @Override
+    public boolean onNestedPreFling(View target, float velocityX, float velocityY) {
+        return false;
+    }
+
+    /***
+     * A fling that the scrollable child does not consume expands or collapses the drawer.
+     */
+    @Override
+    public boolean onNestedFling(View target, float velocityX, float velocityY, boolean consumed) {
+        if(consumed || !mNestedScrolling){
+            return false;
+        }
+        mNestedFlingVelocity = mAlignmentStrategy.getOpeningScrollDelta(Math.round(velocityX), Math.round(velocityY));
+        return true;
+    }
+
+    @Override
+    public void onStopNestedScroll(View target) {
+        mNestedScrollingParentHelper.onStopNestedScroll(target);
+        if(mNestedScrolling){
+            mNestedScrolling = false;
+            flushDrag();
+            if(mMetrics != null){
+                mMetrics.endGesture();
+            }
+            mDrawerListener.release(mSize, mNestedFlingVelocity);
+        }
+    }
+
+    /***
+     * Draws the scrim on the area of the AndroidDrawerSheet that is not covered by the drawer.
+     */
+    @Override
+    protected void dispatchDraw(Canvas canvas) {
+        if(mScrimColor != 0 && mSize > mOffset){
+            int alpha = Math.round((mScrimColor >>> 24) * getDrawerProgress());
+            if(alpha > 0) {
+                mScrimPaint.setColor((alpha << 24) | (mScrimColor & 0x00ffffff));
+                mAlignmentStrategy.getScrimBounds(mScrimBounds, getWidth(), getHeight(), getVisibleSize());
+                canvas.drawRect(mScrimBounds, mScrimPaint);
+            }
+        }
+        super.dispatchDraw(canvas);
+        drawShadow(canvas);
+    }
+
+    /***
+     * Draws the edge shadow of the drawer on devices below API level 21, where the drawer has no elevation.
+     * @param canvas The canvas of the AndroidDrawerSheet.
+     */
+    private void drawShadow(Canvas canvas){
+        if(Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP || mInvisibleOffset || mSize <= 0 || mInnerContainer.getVisibility() != VISIBLE){
+            return;
+        }
+        mAlignmentStrategy.getShadowBounds(mShadowBounds, getWidth(), getHeight(), mSize);
+        int saveCount = canvas.save();
+        canvas.translate(mShadowBounds.left, mShadowBounds.top);
+        canvas.drawRect(0, 0, mShadowBounds.width(), mShadowBounds.height(), mAlignmentStrategy.getShadowPaint());
+        canvas.restoreToCount(saveCount);
+    }
+
+    /***
+     * Clips the drawer to its visible extent, so hidden parts of the drawer are not drawn.
+     */
+    @Override
+    protected boolean drawChild(Canvas canvas, View child, long drawingTime) {
+        if(child != mInnerContainer || !isClippingContent()){
+            return super.drawChild(canvas, child, drawingTime);
+        }
+        int visibleSize = getVisibleSize();
+        if(visibleSize <= 0){
+            return false;
+        }
+        mAlignmentStrategy.getDrawerBounds(mClipBounds, getWidth(), getHeight(), visibleSize);
+        int saveCount = canvas.save();
+        canvas.clipRect(mClipBounds);
+        boolean result = super.drawChild(canvas, child, drawingTime);
+        canvas.restoreToCount(saveCount);
+        return result;
+    }
+
+    /***
+     * Returns true if the drawer is marked as opaque (see {@link #setDrawerOpaque(boolean)}) and covers the whole AndroidDrawerSheet.
+     * @return True if the AndroidDrawerSheet is opaque, false otherwise.
+     */
+    @Override
+    public boolean isOpaque() {
+        if(!mDrawerOpaque || mInnerContainer == null || mInnerContainer.getVisibility() != VISIBLE || getVisibleSize() < mAlignmentStrategy.getSize(this)){
+            return false;
+        }
+        // The container can be smaller than the drawer, e.g. because of the margins for its elevation shadow.
+        float left = mInnerContainer.getLeft() + ViewCompat.getTranslationX(mInnerContainer);
+        float top = mInnerContainer.getTop() + ViewCompat.getTranslationY(mInnerContainer);
+        return left <= 0 && top <= 0 && left + mInnerContainer.getWidth() >= getWidth() && top + mInnerContainer.getHeight() >= getHeight();
+    }
+
+    /***
+     * Returns true if the drawer has to be clipped to its visible extent, i.e. if its bounds are larger than the visible part.
+     * @return True if the drawer is clipped, false otherwise.
+     */
+    private boolean isClippingContent(){
+        return mInvisibleOffset || mPositioningMode == POSITIONING_MODE_TRANSLATE;
+    }
+
+    /***
+     * Returns the size of the visible part of the drawer, which is the size of the drawer without the invisible offset.
+     * @return The visible size in pixels.
+     */
+    private int getVisibleSize(){
+        return mInvisibleOffset ? mSize - mOffset : mSize;
+    }
+
+    /***
+     * Schedules a call of {@link #doFrame()} with the next animation frame (vsync on API level 16 and above).
+     * Nothing is scheduled while the drawer is neither dragged nor animated. If the drawer is registered with a
+     * {@link DrawerSheetCoordinator}, the shared frame callback of the coordinator is scheduled instead.
+     */
+    private void scheduleFrame(){
+        if(mMetrics != null && mFrameRequestNanos == 0){
+            mFrameRequestNanos = System.nanoTime();
+        }
+        if(mCoordinator != null){
+            mCoordinator.scheduleFrame(this);
+            return;
+        }
+        if(!mFrameScheduled){
+            mFrameScheduled = true;
+            ViewCompat.postOnAnimation(this, mFrameCallback);
+        }
+    }
+
+    /***
+     * Applies the latest drag position and advances the settle animation once per frame.
+     */
+    void doFrame(){
+        if(mFrameRequestNanos != 0){
+            if(mMetrics != null) {
+                mMetrics.onFrame(System.nanoTime() - mFrameRequestNanos);
+            }
+            mFrameRequestNanos = 0;
+        }
+        flushDrag();
+        if(mSettleAnimation.step()){
+            scheduleFrame();
+        }
+    }
+
+    DrawerSheetCoordinator getCoordinator(){
+        return mCoordinator;
+    }
+
+    void setCoordinator(DrawerSheetCoordinator coordinator){
+        mCoordinator = coordinator;
+        if(mDragPending || mSettleAnimation.isRunning()){
+            scheduleFrame();
+        }
+    }
+
+    /***
+     * Applies the latest drag position, if it has not been applied yet, and notifies the resize listeners.
+     */
+    private void flushDrag(){
+        if(!mDragPending){
+            return;
+        }
+        mDragPending = false;
+        if(mPendingDragSize != mSize){
+            setDrawerSize(mPendingDragSize);
+            notifyOnResizeListeners(mPendingDragSize);
+        }
+    }
+
     /***
      * Initializes member variables and assignes the appropriate {@link de.mxapplications.androiddrawersheet.AndroidDrawerSheet.AlignmentStrategy} based on the alignment set by the user.
      * It also initializes the inner ViewGroup (mInnerContainer) that holds all the children of the view.
@@ -139,67 +685,119 @@ public class AndroidDrawerSheet extends FrameLayout {
         mMinimumClosingSize = styledAttributes.getDimensionPixelSize(R.styleable.AndroidDrawerSheet_minimumClosingSize, mMinimumClosingSize);
         mMinimumOpeningSize = styledAttributes.getDimensionPixelSize(R.styleable.AndroidDrawerSheet_minimumOpeningSize, mMinimumOpeningSize);
         mStickyDrag = styledAttributes.getBoolean(R.styleable.AndroidDrawerSheet_stickyDrag, mStickyDrag);
+        mPositioningMode = styledAttributes.getInt(R.styleable.AndroidDrawerSheet_drawerPositioningMode, mPositioningMode);
+        readDetent(styledAttributes, R.styleable.AndroidDrawerSheet_peekDetent);
+        readDetent(styledAttributes, R.styleable.AndroidDrawerSheet_halfDetent);
+        mScrimColor = styledAttributes.getColor(R.styleable.AndroidDrawerSheet_scrimColor, mScrimColor);
+        mHardwareLayer = styledAttributes.getBoolean(R.styleable.AndroidDrawerSheet_drawerHardwareLayer, mHardwareLayer);
+        mContentSized = styledAttributes.getBoolean(R.styleable.AndroidDrawerSheet_drawerContentSized, mContentSized);
+        mMaximumOpenSize = styledAttributes.getDimensionPixelSize(R.styleable.AndroidDrawerSheet_maximumOpenSize, mMaximumOpenSize);
+        mSettleDuration = styledAttributes.getInt(R.styleable.AndroidDrawerSheet_settleDuration, mSettleDuration);
+        mContentLayout = styledAttributes.getResourceId(R.styleable.AndroidDrawerSheet_drawerContentLayout, mContentLayout);
+        mPlaceholderLayout = styledAttributes.getResourceId(R.styleable.AndroidDrawerSheet_drawerPlaceholderLayout, mPlaceholderLayout);
+        mPreInflateContent = styledAttributes.getBoolean(R.styleable.AndroidDrawerSheet_drawerPreInflateContent, mPreInflateContent);
+        mHideClosedContent = styledAttributes.getBoolean(R.styleable.AndroidDrawerSheet_drawerHideClosedContent, mHideClosedContent);
+        mDrawerOpaque = styledAttributes.getBoolean(R.styleable.AndroidDrawerSheet_drawerOpaque, mDrawerOpaque);
+        mEdgeSwipe = styledAttributes.getBoolean(R.styleable.AndroidDrawerSheet_drawerEdgeSwipe, mEdgeSwipe);
+        mEdgeWidth = styledAttributes.getDimensionPixelSize(R.styleable.AndroidDrawerSheet_drawerEdgeWidth,
+                (int) (DEFAULT_EDGE_WIDTH_DP * context.getResources().getDisplayMetrics().density + 0.5f));
+        int settleInterpolator = styledAttributes.getResourceId(R.styleable.AndroidDrawerSheet_settleInterpolator, 0);
+        if(settleInterpolator != 0){
+            mSettleInterpolator = AnimationUtils.loadInterpolator(context, settleInterpolator);
+        }
 
         styledAttributes.recycle();
 
-        switch (mAlignment){
-            case ALIGNMENT_TOP:
-                mAlignmentStrategy = new TopAlignmentStrategy();
-                break;
-            case ALIGNMENT_BOTTOM:
-                mAlignmentStrategy = new BottomAlignmentStrategy();
-                break;
-            case ALIGNMENT_RIGHT:
-                mAlignmentStrategy = new RightAlignmentStrategy();
-                break;
-            case ALIGNMENT_LEFT:
-            default:
-                mAlignmentStrategy = new LeftAlignmentStrategy();
-                break;
+        if(Build.VERSION.SDK_INT < Build.VERSION_CODES.HONEYCOMB){
+            mPositioningMode = POSITIONING_MODE_RESIZE;
         }
+        mSize = mOffset;
 
-        final RelativeLayout outerContainer = new RelativeLayout(context);
-        ViewGroup.LayoutParams outerContainerLayoutParams = new ViewGroup.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT);
-        outerContainer.setLayoutParams(outerContainerLayoutParams);
-
-        ViewTreeObserver observer = outerContainer.getViewTreeObserver();
-        observer.addOnPreDrawListener(new ViewTreeObserver.OnPreDrawListener() {
-            @Override
-            public boolean onPreDraw() {
-                outerContainer.getViewTreeObserver().removeOnPreDrawListener(this);
-                mAlignmentStrategy.setOuterAlignment();
-                if(mDrawerState == DRAWER_STATE_CLOSED){
-                    closeDrawer(false);
-                }
-                return true;
-            }
-        });
-        super.addView(outerContainer);
+        mAlignmentStrategy = getAlignmentStrategy(mAlignment);
 
-        RelativeLayout.LayoutParams layoutParams = new RelativeLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT);
-        mAlignmentStrategy.setSize(layoutParams, mOffset);
-        layoutParams.addRule(mAlignmentStrategy.getAlignment());
+        FrameLayout.LayoutParams layoutParams = new FrameLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT);
+        if(mPositioningMode == POSITIONING_MODE_RESIZE) {
+            mAlignmentStrategy.setSize(layoutParams, mOffset);
+        }
 
+        DrawerContainer innerContainer;
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
-            mInnerContainer = new FrameLayout(getContext(), attrs, defStyleAttr, defStyleRes);
-            mInnerContainer.setElevation(16);
-            mInnerContainer.setOutlineProvider(ViewOutlineProvider.PADDED_BOUNDS);
-            if(!mInvisibleOffset) {
-                mAlignmentStrategy.setShadowMargins(layoutParams);
-            }
+            innerContainer = new DrawerContainer(getContext(), attrs, defStyleAttr, defStyleRes);
+            innerContainer.setElevation(16);
+            innerContainer.setOutlineProvider(ViewOutlineProvider.PADDED_BOUNDS);
         }else{
-            mInnerContainer = new FrameLayout(getContext(), attrs, defStyleAttr);
+            innerContainer = new DrawerContainer(getContext(), attrs, defStyleAttr);
+        }
+        if(!mInvisibleOffset) {
+            // The margins leave room for the elevation shadow, or for the edge shadow that is drawn below API level 21.
+            mAlignmentStrategy.setShadowMargins(layoutParams);
         }
 
-        mInnerContainer.setLayoutParams(layoutParams);
         if(mInvisibleOffset){
-            mAlignmentStrategy.setPadding(mInnerContainer, mOffset);
+            mAlignmentStrategy.setPadding(innerContainer, mOffset);
         }
 
+        // The inner container is the only direct child. Children that are added afterwards are forwarded to it.
+        super.addView(innerContainer, -1, layoutParams);
+        mInnerContainer = innerContainer;
+        showPlaceholder();
+        // The layout parameters already have the closed size, and a translated drawer is moved to it in onLayout, so the first frame is correct.
+        updateContentVisibility();
+
         mDrawerListener = new DrawerListener();
-        mInnerContainer.setOnTouchListener(mDrawerListener);
+        mNestedScrollingParentHelper = new NestedScrollingParentHelper(this);
+
+    }
+
+    /***
+     * Returns the {@link de.mxapplications.androiddrawersheet.AndroidDrawerSheet.AlignmentStrategy} of an alignment. Each strategy is only created once
+     * and reused whenever the alignment changes.
+     * @param alignment The alignment which is one of ALIGNMENT_TOP, ALIGNMENT_LEFT, ALIGNMENT_RIGHT, or ALIGNMENT_BOTTOM.
+     * @return The alignment strategy.
+     */
+    private AlignmentStrategy getAlignmentStrategy(int alignment){
+        if(alignment < ALIGNMENT_TOP || alignment > ALIGNMENT_RIGHT){
+            alignment = ALIGNMENT_LEFT;
+        }
+        AlignmentStrategy strategy = mAlignmentStrategies[alignment - 1];
+        if(strategy == null){
+            switch (alignment){
+                case ALIGNMENT_TOP:
+                    strategy = new TopAlignmentStrategy();
+                    break;
+                case ALIGNMENT_BOTTOM:
+                    strategy = new BottomAlignmentStrategy();
+                    break;
+                case ALIGNMENT_RIGHT:
+                    strategy = new RightAlignmentStrategy();
+                    break;
+                case ALIGNMENT_LEFT:
+                default:
+                    strategy = new LeftAlignmentStrategy();
+                    break;
+            }
+            mAlignmentStrategies[alignment - 1] = strategy;
+        }
+        return strategy;
+    }
 
-        outerContainer.addView(mInnerContainer);
+    /***
+     * Adds the detent of the given attribute, which is either a dimension or a fraction of the open size.
+     * @param styledAttributes The styled attributes.
+     * @param index The index of the detent attribute.
+     */
+    private void readDetent(TypedArray styledAttributes, int index){
+        TypedValue value = styledAttributes.peekValue(index);
+        if(value == null){
+            return;
+        }
+        if(value.type == TypedValue.TYPE_FRACTION){
+            mDetentFractions = Arrays.copyOf(mDetentFractions, mDetentFractions.length + 1);
+            mDetentFractions[mDetentFractions.length - 1] = styledAttributes.getFraction(index, 1, 1, 0);
+        }else{
+            mDetentSizes = Arrays.copyOf(mDetentSizes, mDetentSizes.length + 1);
+            mDetentSizes[mDetentSizes.length - 1] = styledAttributes.getDimensionPixelSize(index, 0);
+        }
     }
 
     /***
@@ -215,7 +813,9 @@ public class AndroidDrawerSheet extends FrameLayout {
      * @param listener The listener that will receive events notifications.
      */
     public void addOnInteractionListener(OnInteractionListener listener){
-        onInteractionListenerList.add(listener);
+        OnInteractionListener[] listeners = Arrays.copyOf(onInteractionListeners, onInteractionListeners.length + 1);
+        listeners[listeners.length - 1] = listener;
+        onInteractionListeners = listeners;
     }
 
     /***
@@ -223,7 +823,30 @@ public class AndroidDrawerSheet extends FrameLayout {
      * @param listener The listener that won't receive event notifications anymore.
      */
     public void removeOnInteractionListener(OnInteractionListener listener){
-        onInteractionListenerList.remove(listener);
+        int index = indexOf(onInteractionListeners, listener);
+        if(index >= 0) {
+            cancelQueuedListener(onInteractionListeners[index]);
+            onInteractionListeners = removeAt(onInteractionListeners, index, new OnInteractionListener[onInteractionListeners.length - 1]);
+        }
+    }
+
+    /***
+     * Adds an {@link de.mxapplications.androiddrawersheet.AndroidDrawerSheet.OnInteractionListener} whose event notifications are run in order by an executor.
+     * @param listener The listener that will receive events notifications.
+     * @param executor The executor that runs the event notifications.
+     */
+    public void addOnInteractionListener(OnInteractionListener listener, Executor executor){
+        addOnInteractionListener(new QueuedDrawerListener(listener, executor));
+    }
+
+    /***
+     * Adds an {@link de.mxapplications.androiddrawersheet.AndroidDrawerSheet.OnInteractionListener} whose event notifications are posted to a Handler
+     * (see {@link #addOnInteractionListener(OnInteractionListener, Executor)}).
+     * @param listener The listener that will receive events notifications.
+     * @param handler The handler to which the event notifications are posted.
+     */
+    public void addOnInteractionListener(OnInteractionListener listener, Handler handler){
+        addOnInteractionListener(listener, QueuedDrawerListener.executorOf(handler));
     }
 
     /***
@@ -231,96 +854,540 @@ public class AndroidDrawerSheet extends FrameLayout {
      * @param listener The listener that will receive event notifications.
      */
     public void addOnResizeListener(OnResizeListener listener){
-        onResizeListenerList.add(listener);
+        OnResizeListener[] listeners = Arrays.copyOf(onResizeListeners, onResizeListeners.length + 1);
+        listeners[listeners.length - 1] = listener;
+        onResizeListeners = listeners;
     }
+
     /***
-     * Removes a {@link de.mxapplications.androiddrawersheet.AndroidDrawerSheet.OnResizeListener} which will not receive event notifications when the drawer is resized anymore.
+     * Adds a {@link de.mxapplications.androiddrawersheet.AndroidDrawerSheet.OnResizeListener} whose event notifications are run by an executor and deliver the latest size.
      * @param listener The listener that will receive event notifications.
+     * @param executor The executor that runs the event notifications.
      */
-    public void removeOnResizeListener(OnResizeListener listener){
-        onResizeListenerList.remove(listener);
+    public void addOnResizeListener(OnResizeListener listener, Executor executor){
+        addOnResizeListener(new QueuedDrawerListener(listener, executor));
     }
-    private void notifyOnInteractionListeners(boolean open, boolean beforeDrawerStateChanged){
-        for(OnInteractionListener listener:onInteractionListenerList){
-            if(open && beforeDrawerStateChanged){
-                listener.beforeDrawerOpened();
-            }else if(open && !beforeDrawerStateChanged){
-                listener.afterDrawerOpened();
-            }else if(!open && beforeDrawerStateChanged){
-                listener.beforeDrawerClosed();
-            }else if(!open && !beforeDrawerStateChanged){
-                listener.afterDrawerClosed();
-            }
-        }
+
+    /***
+     * Adds a {@link de.mxapplications.androiddrawersheet.AndroidDrawerSheet.OnResizeListener} whose event notifications are posted to a Handler
+     * (see {@link #addOnResizeListener(OnResizeListener, Executor)}).
+     * @param listener The listener that will receive event notifications.
+     * @param handler The handler to which the event notifications are posted.
+     */
+    public void addOnResizeListener(OnResizeListener listener, Handler handler){
+        addOnResizeListener(listener, QueuedDrawerListener.executorOf(handler));
     }
-    private void notifyOnResizeListeners(int size){
-        for(OnResizeListener listener:onResizeListenerList){
-            listener.drawerResized(size);
+    /***
+     * Removes a {@link de.mxapplications.androiddrawersheet.AndroidDrawerSheet.OnResizeListener} which will not receive event notifications when the drawer is resized anymore.
+     * @param listener The listener that will receive event notifications.
+     */
+    public void removeOnResizeListener(OnResizeListener listener){
+        int index = indexOf(onResizeListeners, listener);
+        if(index >= 0) {
+            cancelQueuedListener(onResizeListeners[index]);
+            onResizeListeners = removeAt(onResizeListeners, index, new OnResizeListener[onResizeListeners.length - 1]);
         }
     }
-
     /***
-     * Opens the drawer and notifies all listeners.
+     * Adds an {@link de.mxapplications.androiddrawersheet.AndroidDrawerSheet.OnProgressListener} which will receive the open progress of the drawer whenever the drawer is resized.
+     * @param listener The listener that will receive event notifications.
      */
-    public void openDrawer(){
-        if(mDrawerState != DRAWER_STATE_OPEN){
-            notifyOnInteractionListeners(true, true);
-        }
-        ViewGroup.LayoutParams layoutParams= mInnerContainer.getLayoutParams();
-        mAlignmentStrategy.setSize(layoutParams, mFullSize);
-        mInnerContainer.setLayoutParams(layoutParams);
-        if(mDrawerState != DRAWER_STATE_OPEN) {
-            mDrawerState = DRAWER_STATE_OPEN;
-            notifyOnResizeListeners(mFullSize);
-            notifyOnInteractionListeners(true, false);
-        }
+    public void addOnProgressListener(OnProgressListener listener){
+        OnProgressListener[] listeners = Arrays.copyOf(onProgressListeners, onProgressListeners.length + 1);
+        listeners[listeners.length - 1] = listener;
+        onProgressListeners = listeners;
     }
-
     /***
-     * Opens the drawer if it is closed and closes the drawer if it is open.
+     * Removes an {@link de.mxapplications.androiddrawersheet.AndroidDrawerSheet.OnProgressListener} which will not receive the open progress of the drawer anymore.
+     * @param listener The listener that won't receive event notifications anymore.
      */
-    public void toggleDrawer(){
-        if(mDrawerState == DRAWER_STATE_CLOSED){
-            openDrawer();
-        }else{
-            closeDrawer();
+    public void removeOnProgressListener(OnProgressListener listener){
+        int index = indexOf(onProgressListeners, listener);
+        if(index >= 0) {
+            onProgressListeners = removeAt(onProgressListeners, index, new OnProgressListener[onProgressListeners.length - 1]);
         }
     }
-
     /***
-     * Closes the drawer and notifies the listeners if the argument is true.
-     * @param notify If true, listeners will be notified, if false, they won't be.
+     * Adds an {@link de.mxapplications.androiddrawersheet.AndroidDrawerSheet.OnDetentChangeListener} which will receive event notifications when the drawer comes to rest at another detent.
+     * @param listener The listener that will receive event notifications.
      */
-    private void closeDrawer(boolean notify){
-        if(notify && mDrawerState != DRAWER_STATE_CLOSED){
-            notifyOnInteractionListeners(false, true);
-        }
-        ViewGroup.LayoutParams layoutParams= mInnerContainer.getLayoutParams();
-        mAlignmentStrategy.setSize(layoutParams, mOffset);
-        mInnerContainer.setLayoutParams(layoutParams);
-        if(notify && mDrawerState != DRAWER_STATE_CLOSED) {
-            mDrawerState = DRAWER_STATE_CLOSED;
-            notifyOnResizeListeners(mOffset);
-            notifyOnInteractionListeners(false, false);
-        }else{
-            mDrawerState=DRAWER_STATE_CLOSED;
-        }
+    public void addOnDetentChangeListener(OnDetentChangeListener listener){
+        OnDetentChangeListener[] listeners = Arrays.copyOf(onDetentChangeListeners, onDetentChangeListeners.length + 1);
+        listeners[listeners.length - 1] = listener;
+        onDetentChangeListeners = listeners;
     }
-
     /***
-     * Closes the drawer and notifies all listeners.
+     * Removes an {@link de.mxapplications.androiddrawersheet.AndroidDrawerSheet.OnDetentChangeListener} which will not receive event notifications anymore.
+     * @param listener The listener that won't receive event notifications anymore.
      */
-    public void closeDrawer(){
-        closeDrawer(true);
+    public void removeOnDetentChangeListener(OnDetentChangeListener listener){
+        int index = indexOf(onDetentChangeListeners, listener);
+        if(index >= 0) {
+            onDetentChangeListeners = removeAt(onDetentChangeListeners, index, new OnDetentChangeListener[onDetentChangeListeners.length - 1]);
+        }
     }
-
-    @Override
-    public void addView(View child) {
-        if(mInnerContainer == null){
-            super.addView(child);
-            return;
+    private static int indexOf(Object[] array, Object object){
+        for(int i = 0; i < array.length; i++){
+            if(array[i].equals(object) || (array[i] instanceof QueuedDrawerListener && ((QueuedDrawerListener) array[i]).wraps(object))){
+                return i;
+            }
         }
-        mInnerContainer.addView(child);
+        return -1;
+    }
+    private static void cancelQueuedListener(Object listener){
+        if(listener instanceof QueuedDrawerListener){
+            ((QueuedDrawerListener) listener).cancel();
+        }
+    }
+    private static <T> T[] removeAt(T[] array, int index, T[] result){
+        System.arraycopy(array, 0, result, 0, index);
+        System.arraycopy(array, index + 1, result, index, array.length - index - 1);
+        return result;
+    }
+    private void notifyOnInteractionListeners(boolean open, boolean beforeDrawerStateChanged){
+        DrawerMetrics metrics = mMetrics;
+        long start = metrics != null ? System.nanoTime() : 0;
+        OnInteractionListener[] listeners = onInteractionListeners;
+        if(open && beforeDrawerStateChanged){
+            for(int i = 0; i < listeners.length; i++){
+                listeners[i].beforeDrawerOpened();
+            }
+        }else if(open){
+            for(int i = 0; i < listeners.length; i++){
+                listeners[i].afterDrawerOpened();
+            }
+        }else if(beforeDrawerStateChanged){
+            for(int i = 0; i < listeners.length; i++){
+                listeners[i].beforeDrawerClosed();
+            }
+        }else{
+            for(int i = 0; i < listeners.length; i++){
+                listeners[i].afterDrawerClosed();
+            }
+        }
+        if(metrics != null){
+            metrics.onDispatch(System.nanoTime() - start);
+        }
+    }
+    private void notifyOnResizeListeners(int size){
+        DrawerMetrics metrics = mMetrics;
+        long start = metrics != null ? System.nanoTime() : 0;
+        OnResizeListener[] listeners = onResizeListeners;
+        for(int i = 0; i < listeners.length; i++){
+            listeners[i].drawerResized(size);
+        }
+        OnProgressListener[] progressListeners = onProgressListeners;
+        if(progressListeners.length > 0) {
+            float progress = getDrawerProgress();
+            for (int i = 0; i < progressListeners.length; i++) {
+                progressListeners[i].drawerProgressChanged(progress);
+            }
+        }
+        if(metrics != null){
+            metrics.onDispatch(System.nanoTime() - start);
+        }
+    }
+
+    /***
+     * Returns how far the drawer is open, from 0 if it is closed to 1 if it is completely open.
+     * @return The open progress of the drawer between 0 and 1.
+     */
+    public float getDrawerProgress(){
+        int range = mFullSize - mOffset;
+        if(range <= 0){
+            return mDrawerState == DRAWER_STATE_OPEN ? 1f : 0f;
+        }
+        return Math.max(0f, Math.min(1f, (mSize - mOffset) / (float) range));
+    }
+
+    /***
+     * Sets the visible size of the drawer by resizing or moving the inner container, depending on the positioning mode.
+     * @param size The visible size of the drawer in pixels.
+     */
+    private void setDrawerSize(int size){
+        if((mScrimColor != 0 || mDrawerOpaque || isClippingContent()) && size != mSize){
+            // The scrim, the clip, and the opacity depend on the size, but a translated drawer does not invalidate the AndroidDrawerSheet.
+            invalidate();
+        }
+        mSize = size;
+        if(mPositioningMode == POSITIONING_MODE_TRANSLATE){
+            int hiddenSize = Math.max(0, mAlignmentStrategy.getSize(mInnerContainer) - size);
+            mAlignmentStrategy.setTranslation(mInnerContainer, hiddenSize);
+        }else {
+            ViewGroup.LayoutParams layoutParams = mInnerContainer.getLayoutParams();
+            mAlignmentStrategy.setSize(layoutParams, size);
+            mApplyingSize = true;
+            mInnerContainer.setLayoutParams(layoutParams);
+            mApplyingSize = false;
+        }
+    }
+
+    /***
+     * Moves the drawer to the given size and changes the drawer state, taking over a settle that is still running.
+     * @param size The target size of the drawer in pixels.
+     * @param drawerState The drawer state after the drawer comes to rest.
+     * @param duration The duration of the animation in milliseconds. If it is 0, the drawer is moved immediately.
+     */
+    private void settleDrawer(int size, int drawerState, int duration){
+        if(size > mOffset){
+            inflateContent();
+            if(mMetrics != null){
+                mMetrics.beginCycle();
+            }
+        }
+        showContent();
+        mDragPending = false;
+        mSettleAnimation.cancel();
+        if(drawerState != mDrawerState){
+            // A state change that is still pending has been interrupted, so it is never reported as completed.
+            notifyOnInteractionListeners(drawerState == DRAWER_STATE_OPEN, true);
+            mDrawerState = drawerState;
+            mStateChangePending = true;
+            if(mCoordinator != null){
+                if(drawerState == DRAWER_STATE_OPEN){
+                    mCoordinator.onDrawerOpening(this, duration > 0);
+                }else{
+                    mCoordinator.onDrawerClosing(this);
+                }
+            }
+        }
+        if(duration > 0 && size != mSize){
+            mSettleAnimation.start(mSize, size, duration);
+            return;
+        }
+        if(size != mSize) {
+            setDrawerSize(size);
+            notifyOnResizeListeners(size);
+        }
+        finishSettling();
+    }
+
+    /***
+     * Notifies the interaction listeners about a state change once the drawer has come to rest.
+     */
+    private void finishSettling(){
+        setContentLayerEnabled(false);
+        updateContentVisibility();
+        if(mStateChangePending){
+            mStateChangePending = false;
+            notifyOnInteractionListeners(mDrawerState == DRAWER_STATE_OPEN, false);
+        }
+        int detent = Arrays.binarySearch(getDetentTable(), mSize);
+        if(detent >= 0 && detent != mCurrentDetent){
+            mCurrentDetent = detent;
+            DrawerMetrics metrics = mMetrics;
+            long start = metrics != null ? System.nanoTime() : 0;
+            OnDetentChangeListener[] listeners = onDetentChangeListeners;
+            for(int i = 0; i < listeners.length; i++){
+                listeners[i].detentChanged(detent, mSize);
+            }
+            if(metrics != null){
+                metrics.onDispatch(System.nanoTime() - start);
+            }
+        }
+        if(mMetrics != null && mDrawerState == DRAWER_STATE_CLOSED && mSize == mOffset){
+            mMetrics.endCycle();
+        }
+    }
+
+    /***
+     * Returns the sorted sizes of all detents in pixels, starting with the closed size and ending with the open size.
+     * @return The sorted sizes of all detents in pixels.
+     */
+    private int[] getDetentTable(){
+        if(mDetentTable != null && mDetentTableFullSize == mFullSize && mDetentTableOffset == mOffset){
+            return mDetentTable;
+        }
+        int fullSize = Math.max(mFullSize, mOffset);
+        int[] table = new int[mDetentSizes.length + mDetentFractions.length + 2];
+        int count = 0;
+        table[count++] = mOffset;
+        table[count++] = fullSize;
+        for(int size : mDetentSizes){
+            table[count++] = Math.max(mOffset, Math.min(fullSize, size));
+        }
+        for(float fraction : mDetentFractions){
+            table[count++] = Math.max(mOffset, Math.min(fullSize, Math.round(fullSize * fraction)));
+        }
+        Arrays.sort(table);
+        int unique = 1;
+        for(int i = 1; i < table.length; i++){
+            if(table[i] != table[unique - 1]){
+                table[unique++] = table[i];
+            }
+        }
+        mDetentTable = unique == table.length ? table : Arrays.copyOf(table, unique);
+        mDetentTableFullSize = mFullSize;
+        mDetentTableOffset = mOffset;
+        return mDetentTable;
+    }
+
+    /***
+     * Returns true if detents between the closed and the open size have been set.
+     * @return True if detents have been set, false otherwise.
+     */
+    private boolean hasDetents(){
+        return mDetentSizes.length + mDetentFractions.length > 0;
+    }
+
+    /***
+     * Moves the drawer to a detent and notifies all listeners. A detent with a size greater than the closed size counts as open.
+     * @param index The index of the detent, where 0 is the closed size and {@link #getDetentCount()} - 1 is the open size.
+     * @param animate If true, the drawer is animated to the detent, if false, it is moved immediately.
+     */
+    public void snapToDetent(int index, boolean animate){
+        int size = getDetentTable()[index];
+        settleDrawer(size, size == mOffset ? DRAWER_STATE_CLOSED : DRAWER_STATE_OPEN, animate ? mSettleDuration : 0);
+    }
+
+    /***
+     * Returns the number of detents including the closed and the open size.
+     * @return The number of detents.
+     */
+    public int getDetentCount(){
+        return getDetentTable().length;
+    }
+
+    /***
+     * Returns the index of the detent at which the drawer has come to rest the last time, where 0 is the closed size
+     * and {@link #getDetentCount()} - 1 is the open size.
+     * @return The index of the current detent.
+     */
+    public int getCurrentDetent(){
+        return mCurrentDetent;
+    }
+
+    /***
+     * Sets the detents in pixels at which the drawer can rest between its closed and its open size.
+     * If detents are set, sticky drag, minimum closing size, and minimum opening size are ignored.
+     * @param sizes The sizes of the detents in pixels.
+     * @return The AndroidDrawerSheet-object.
+     */
+    public AndroidDrawerSheet setDetents(int... sizes){
+        mDetentSizes = sizes.clone();
+        mDetentTable = null;
+        return this;
+    }
+
+    /***
+     * Sets the detents as fractions of the open size at which the drawer can rest between its closed and its open size.
+     * If detents are set, sticky drag, minimum closing size, and minimum opening size are ignored.
+     * @param fractions The sizes of the detents as fractions of the open size between 0 and 1.
+     * @return The AndroidDrawerSheet-object.
+     */
+    public AndroidDrawerSheet setDetentFractions(float... fractions){
+        mDetentFractions = fractions.clone();
+        mDetentTable = null;
+        return this;
+    }
+
+    /***
+     * Hides the inner container if the drawer rests in its closed position and no part of it is visible.
+     */
+    private void updateContentVisibility(){
+        boolean hidden = (mHideClosedContent || mEdgeSwipe) && mDrawerState == DRAWER_STATE_CLOSED && mSize == mOffset
+                && (mInvisibleOffset || mOffset == 0)
+                && !mDragging && !mNestedScrolling && !mSettleAnimation.isRunning();
+        setContentVisibility(hidden ? GONE : VISIBLE);
+    }
+
+    /***
+     * Shows the inner container before the drawer starts moving, so it is measured and laid out before the first frame of the movement.
+     */
+    private void showContent(){
+        setContentVisibility(VISIBLE);
+    }
+
+    private void setContentVisibility(int visibility){
+        if(mInnerContainer.getVisibility() == visibility){
+            return;
+        }
+        // The content itself has not changed, so the open size of a content-sized drawer does not have to be measured again.
+        mApplyingSize = true;
+        mInnerContainer.setVisibility(visibility);
+        mApplyingSize = false;
+    }
+
+    /***
+     * Puts the inner container on a hardware layer while it moves in translate mode.
+     * @param enabled True if the drawer starts being dragged or settling, false if it has come to rest.
+     */
+    private void setContentLayerEnabled(boolean enabled){
+        if(!mHardwareLayer || enabled == mContentLayerEnabled){
+            return;
+        }
+        if(enabled && mPositioningMode != POSITIONING_MODE_TRANSLATE){
+            return;
+        }
+        mContentLayerEnabled = enabled;
+        ViewCompat.setLayerType(mInnerContainer, enabled ? ViewCompat.LAYER_TYPE_HARDWARE : ViewCompat.LAYER_TYPE_NONE, null);
+    }
+
+    /***
+     * Opens the drawer immediately and notifies all listeners.
+     */
+    public void openDrawer(){
+        openDrawer(false);
+    }
+
+    /***
+     * Opens the drawer and notifies all listeners.
+     * @param animate If true, the drawer is animated to its open position, if false, it is opened immediately.
+     */
+    public void openDrawer(boolean animate){
+        settleDrawer(mFullSize, DRAWER_STATE_OPEN, animate ? mSettleDuration : 0);
+    }
+
+    /***
+     * Opens the drawer if it is closed and closes the drawer if it is open. The drawer is moved immediately.
+     */
+    public void toggleDrawer(){
+        toggleDrawer(false);
+    }
+
+    /***
+     * Opens the drawer if it is closed and closes the drawer if it is open.
+     * @param animate If true, the drawer is animated to its new position, if false, it is moved immediately.
+     */
+    public void toggleDrawer(boolean animate){
+        if(mDrawerState == DRAWER_STATE_CLOSED){
+            openDrawer(animate);
+        }else{
+            closeDrawer(animate);
+        }
+    }
+
+    /***
+     * Closes the drawer immediately and notifies all listeners.
+     */
+    public void closeDrawer(){
+        closeDrawer(false);
+    }
+
+    /***
+     * Closes the drawer and notifies all listeners.
+     * @param animate If true, the drawer is animated to its closed position, if false, it is closed immediately.
+     */
+    public void closeDrawer(boolean animate){
+        settleDrawer(mOffset, DRAWER_STATE_CLOSED, animate ? mSettleDuration : 0);
+    }
+
+    /***
+     * Inflates the content layout (see {@link #setContentLayout(int)}) and adds it to the drawer, if this has not happened yet.
+     * This is done automatically when the drawer is dragged or opened for the first time.
+     */
+    public void inflateContent(){
+        if(mContentLayout == 0 || mContent != null){
+            return;
+        }
+        cancelPreInflation();
+        attachContent(LayoutInflater.from(getContext()).inflate(mContentLayout, mInnerContainer, false));
+    }
+
+    /***
+     * Inflates the content layout on a worker thread and adds it to the drawer on the main thread.
+     */
+    public void preInflateContent(){
+        if(mContentLayout == 0 || mContent != null || mPreInflateTask != null){
+            return;
+        }
+        mPreInflateTask = new PreInflateTask(this, mContentLayout);
+        postInflation(mPreInflateTask);
+    }
+
+    /***
+     * Stops a pending pre-inflation, so its result is not used and it no longer refers to the drawer.
+     */
+    private void cancelPreInflation(){
+        if(mPreInflateTask != null){
+            mPreInflateTask.cancel();
+            mPreInflateTask = null;
+        }
+    }
+
+    /***
+     * Adds the pre-inflated content to the drawer, if it has been inflated from the current content layout and the content is still missing.
+     * @param task The finished task.
+     * @param content The inflated content, or null if it could not be inflated on the worker thread.
+     */
+    private void onContentPreInflated(PreInflateTask task, View content){
+        if(task != mPreInflateTask){
+            return;
+        }
+        mPreInflateTask = null;
+        if(content != null && mContent == null && task.mContentLayout == mContentLayout){
+            attachContent(content);
+        }
+    }
+
+    /***
+     * Returns true if the content layout has been inflated and added to the drawer.
+     * @return True if the content has been inflated, false otherwise.
+     */
+    public boolean isContentInflated(){
+        return mContent != null;
+    }
+
+    /***
+     * Replaces the placeholder with the inflated content.
+     * @param content The inflated content.
+     */
+    private void attachContent(View content){
+        if(mPlaceholder != null){
+            mInnerContainer.removeView(mPlaceholder);
+            mPlaceholder = null;
+        }
+        mContent = content;
+        mInnerContainer.addView(content);
+    }
+
+    /***
+     * Shows the placeholder layout as long as the content layout has not been inflated.
+     */
+    private void showPlaceholder(){
+        if(mPlaceholderLayout == 0 || mContentLayout == 0 || mContent != null || mPlaceholder != null){
+            return;
+        }
+        mPlaceholder = LayoutInflater.from(getContext()).inflate(mPlaceholderLayout, mInnerContainer, false);
+        mInnerContainer.addView(mPlaceholder);
+    }
+
+    /***
+     * Posts a pre-inflation to the inflater thread, which is started for the first pending inflation and quits after the last one.
+     * @param task The task.
+     */
+    private static synchronized void postInflation(PreInflateTask task){
+        if(sInflaterHandler == null){
+            sInflaterThread = new HandlerThread("AndroidDrawerSheetInflater", Process.THREAD_PRIORITY_BACKGROUND);
+            sInflaterThread.start();
+            sInflaterHandler = new Handler(sInflaterThread.getLooper());
+        }
+        sPendingInflations++;
+        sInflaterHandler.post(task);
+    }
+
+    private static synchronized void finishInflation(){
+        if(--sPendingInflations == 0){
+            sInflaterThread.quit();
+            sInflaterThread = null;
+            sInflaterHandler = null;
+        }
+    }
+
+    private static synchronized Handler getMainHandler(){
+        if(sMainHandler == null){
+            sMainHandler = new Handler(Looper.getMainLooper());
+        }
+        return sMainHandler;
+    }
+
+    @Override
+    public void addView(View child) {
+        if(mInnerContainer == null){
+            super.addView(child);
+            return;
+        }
+        mInnerContainer.addView(child);
     }
 
     @Override
@@ -378,13 +1445,12 @@ public class AndroidDrawerSheet extends FrameLayout {
     }
 
     /***
-     * Sets the alignment of the drawer which is on of ALIGNMENT_TOP, ALIGNMENT_LEFT, ALIGNMENT_RIGHT, or ALIGNMENT_BOTTOM.
+     * Sets the alignment of the drawer which is on of ALIGNMENT_TOP, ALIGNMENT_LEFT, ALIGNMENT_RIGHT, or ALIGNMENT_BOTTOM. Any other value is ignored.
      * @param mAlignment The alignment of the drawer which is on of ALIGNMENT_TOP, ALIGNMENT_LEFT, ALIGNMENT_RIGHT, or ALIGNMENT_BOTTOM.
      * @return The AndroidDrawerSheet-object.
      */
     public AndroidDrawerSheet setAlignment(int mAlignment) {
-        this.mAlignment = mAlignment;
-        return this;
+        return edit().setAlignment(mAlignment).apply();
     }
 
     /***
@@ -407,8 +1473,7 @@ public class AndroidDrawerSheet extends FrameLayout {
      * @return The AndroidDrawerSheet-object.
      */
     public AndroidDrawerSheet setInvisibleOffset(boolean mInvisibleOffset) {
-        this.mInvisibleOffset = mInvisibleOffset;
-        return this;
+        return edit().setInvisibleOffset(mInvisibleOffset).apply();
     }
 
     /***
@@ -422,230 +1487,1068 @@ public class AndroidDrawerSheet extends FrameLayout {
     /***
      * Set the offset in pixels. The offset determines how much of the drawer is visible if the drawer is closed.
      * @param mOffset The offset in pixels.
-     * @return
+     * @return The AndroidDrawerSheet-object.
      */
     public AndroidDrawerSheet setOffset(int mOffset) {
-        this.mOffset = mOffset;
-        return this;
+        return edit().setOffset(mOffset).apply();
     }
 
     /***
-     * This listener interface provides methods that are being called when the drawer is opened or closed.
+     * Starts changing the alignment, the offset, and the visibility of the offset of the drawer. The changes are applied together by
+     * {@link Editor#apply()}, so the drawer is laid out only once, no matter how many of them are changed.
+     * @return The editor.
      */
-    public interface OnInteractionListener{
+    public Editor edit(){
+        if(mEditor == null){
+            mEditor = new Editor();
+        }
+        mEditor.mAlignment = mAlignment;
+        mEditor.mOffset = mOffset;
+        mEditor.mInvisibleOffset = mInvisibleOffset;
+        return mEditor;
+    }
+
+    /***
+     * Changes the alignment, the offset, and the visibility of the offset of the drawer (see {@link #edit()}).
+     */
+    public class Editor{
+        private int mAlignment;
+        private int mOffset;
+        private boolean mInvisibleOffset;
+
+        private Editor(){
+        }
+
         /***
-         * This method is called before the drawer is closed.
+         * Sets the alignment of the drawer which is on of ALIGNMENT_TOP, ALIGNMENT_LEFT, ALIGNMENT_RIGHT, or ALIGNMENT_BOTTOM. Any other value is ignored.
+         * @param alignment The alignment of the drawer.
+         * @return The Editor-object.
          */
-        void beforeDrawerClosed();
+        public Editor setAlignment(int alignment){
+            mAlignment = alignment;
+            return this;
+        }
+
+        /***
+         * Sets the offset in pixels. The offset determines how much of the drawer is visible if the drawer is closed.
+         * @param offset The offset in pixels.
+         * @return The Editor-object.
+         */
+        public Editor setOffset(int offset){
+            mOffset = offset;
+            return this;
+        }
+
+        /***
+         * Sets if the offset is visible or not (see {@link AndroidDrawerSheet#setInvisibleOffset(boolean)}).
+         * @param invisibleOffset True, if the offset is invisible, false otherwise.
+         * @return The Editor-object.
+         */
+        public Editor setInvisibleOffset(boolean invisibleOffset){
+            mInvisibleOffset = invisibleOffset;
+            return this;
+        }
+
+        /***
+         * Applies all changes and lays out the drawer again in a single pass.
+         * @return The AndroidDrawerSheet-object.
+         */
+        public AndroidDrawerSheet apply(){
+            applyEdit(mAlignment, mOffset, mInvisibleOffset, true);
+            return AndroidDrawerSheet.this;
+        }
+    }
+
+    /***
+     * Applies the changes of an {@link Editor} or of a restored state.
+     * @param alignment The alignment.
+     * @param offset The offset in pixels.
+     * @param invisibleOffset True if the offset is invisible.
+     * @param notifyListeners False if the listeners are not notified, because the size is not known yet.
+     */
+    private void applyEdit(int alignment, int offset, boolean invisibleOffset, boolean notifyListeners){
+        if(alignment < ALIGNMENT_TOP || alignment > ALIGNMENT_RIGHT){
+            alignment = mAlignment;
+        }
+        AlignmentStrategy strategy = getAlignmentStrategy(alignment);
+        if(alignment == mAlignment && offset == mOffset && invisibleOffset == mInvisibleOffset){
+            return;
+        }
+        if(notifyListeners){
+            flushDrag();
+            mSettleAnimation.end();
+        }else{
+            // The restored state replaces whatever was in progress.
+            mDragPending = false;
+            mSettleAnimation.cancel();
+            mStateChangePending = false;
+        }
+
+        AlignmentStrategy oldStrategy = mAlignmentStrategy;
+        boolean alignmentChanged = strategy != oldStrategy;
+        mAlignment = alignment;
+        mOffset = offset;
+        mInvisibleOffset = invisibleOffset;
+        mAlignmentStrategy = strategy;
+
+        FrameLayout.LayoutParams layoutParams = (FrameLayout.LayoutParams) mInnerContainer.getLayoutParams();
+        if(alignmentChanged){
+            oldStrategy.setTranslation(mInnerContainer, 0);
+            layoutParams.width = ViewGroup.LayoutParams.MATCH_PARENT;
+            layoutParams.height = ViewGroup.LayoutParams.MATCH_PARENT;
+            if(getLayoutParams() != null){
+                oldStrategy.clearOuterAlignment();
+                strategy.setOuterAlignment();
+                setLayoutParams(getLayoutParams());
+            }
+            if(!mContentSized){
+                mFullSize = strategy.getSize(this);
+            }
+        }
+        if(mContentSized){
+            // The cached open size depends on the alignment and the offset.
+            mContentLayoutGeneration++;
+        }
+        layoutParams.setMargins(0, 0, 0, 0);
+        if(!mInvisibleOffset){
+            strategy.setShadowMargins(layoutParams);
+        }
+        if(mPositioningMode == POSITIONING_MODE_TRANSLATE){
+            strategy.setSize(layoutParams, mContentSized ? mFullSize : ViewGroup.LayoutParams.MATCH_PARENT);
+        }
+        mInnerContainer.setPadding(0, 0, 0, 0);
+        if(mInvisibleOffset){
+            strategy.setPadding(mInnerContainer, mOffset);
+        }
+
+        int size;
+        if(mDrawerState == DRAWER_STATE_OPEN){
+            size = alignmentChanged ? Math.max(mFullSize, mOffset) : DrawerDragCore.clamp(mSize, mOffset, Math.max(mFullSize, mOffset));
+        }else{
+            size = mOffset;
+        }
+        mApplyingSize = true;
+        mInnerContainer.setLayoutParams(layoutParams);
+        mApplyingSize = false;
+        boolean sizeChanged = size != mSize;
+        setDrawerSize(size);
+        if(sizeChanged && notifyListeners){
+            notifyOnResizeListeners(size);
+        }
+        updateContentVisibility();
+        invalidate();
+    }
+
+    /***
+     * Returns the positioning mode which is one of POSITIONING_MODE_RESIZE or POSITIONING_MODE_TRANSLATE.
+     * @return The positioning mode which is one of POSITIONING_MODE_RESIZE or POSITIONING_MODE_TRANSLATE.
+     */
+    public int getPositioningMode() {
+        return mPositioningMode;
+    }
+
+    /***
+     * Sets the positioning mode which is one of POSITIONING_MODE_RESIZE or POSITIONING_MODE_TRANSLATE (API level 11 or higher).
+     * @param positioningMode The positioning mode which is one of POSITIONING_MODE_RESIZE or POSITIONING_MODE_TRANSLATE.
+     * @return The AndroidDrawerSheet-object.
+     */
+    public AndroidDrawerSheet setPositioningMode(int positioningMode) {
+        if(Build.VERSION.SDK_INT < Build.VERSION_CODES.HONEYCOMB){
+            positioningMode = POSITIONING_MODE_RESIZE;
+        }
+        if(positioningMode == mPositioningMode){
+            return this;
+        }
+        mPositioningMode = positioningMode;
+        ViewGroup.LayoutParams layoutParams = mInnerContainer.getLayoutParams();
+        if(mPositioningMode == POSITIONING_MODE_TRANSLATE) {
+            mAlignmentStrategy.setSize(layoutParams, mContentSized ? mFullSize : ViewGroup.LayoutParams.MATCH_PARENT);
+        }else{
+            mAlignmentStrategy.setTranslation(mInnerContainer, 0);
+            mAlignmentStrategy.setSize(layoutParams, mSize);
+        }
+        mInnerContainer.setLayoutParams(layoutParams);
+        return this;
+    }
+
+    /***
+     * Returns the duration in milliseconds of the animation that opens or closes the drawer.
+     * @return The duration in milliseconds.
+     */
+    public int getSettleDuration() {
+        return mSettleDuration;
+    }
+
+    /***
+     * Sets the duration in milliseconds of the animation that opens or closes the drawer. If the duration is 0, the drawer is opened and closed immediately.
+     * @param settleDuration The duration in milliseconds.
+     * @return The AndroidDrawerSheet-object.
+     */
+    public AndroidDrawerSheet setSettleDuration(int settleDuration) {
+        this.mSettleDuration = Math.max(0, settleDuration);
+        return this;
+    }
+
+    /***
+     * Returns the interpolator of the animation that opens or closes the drawer.
+     * @return The interpolator.
+     */
+    public Interpolator getSettleInterpolator() {
+        return mSettleInterpolator;
+    }
+
+    /***
+     * Sets the interpolator of the animation that opens or closes the drawer.
+     * @param settleInterpolator The interpolator.
+     * @return The AndroidDrawerSheet-object.
+     */
+    public AndroidDrawerSheet setSettleInterpolator(Interpolator settleInterpolator) {
+        this.mSettleInterpolator = settleInterpolator;
+        return this;
+    }
+
+    /***
+     * Returns the scrim color. The scrim is drawn on the area of the AndroidDrawerSheet that is not covered by the drawer. If it is 0, no scrim is drawn.
+     * @return The scrim color.
+     */
+    public int getScrimColor() {
+        return mScrimColor;
+    }
+
+    /***
+     * Sets the scrim color, which is drawn on the area that is not covered by the drawer. If the color is 0, no scrim is drawn.
+     * @param scrimColor The scrim color.
+     * @return The AndroidDrawerSheet-object.
+     */
+    public AndroidDrawerSheet setScrimColor(int scrimColor) {
+        this.mScrimColor = scrimColor;
+        invalidate();
+        return this;
+    }
+
+    /***
+     * Returns true if the drawer is put on a hardware layer while it is dragged or animated in translate mode.
+     * @return True if the hardware layer is enabled, false otherwise.
+     */
+    public boolean isHardwareLayer() {
+        return mHardwareLayer;
+    }
+
+    /***
+     * Sets if the drawer is put on a hardware layer while it is dragged or animated in translate mode.
+     * @param hardwareLayer True to enable the hardware layer, false to disable it.
+     * @return The AndroidDrawerSheet-object.
+     */
+    public AndroidDrawerSheet setHardwareLayer(boolean hardwareLayer) {
+        if(!hardwareLayer){
+            setContentLayerEnabled(false);
+        }
+        this.mHardwareLayer = hardwareLayer;
+        return this;
+    }
+
+    /***
+     * Returns true if the drawer opens to the size of its content instead of its full size.
+     * @return True if the drawer is content-sized, false otherwise.
+     */
+    public boolean isContentSized() {
+        return mContentSized;
+    }
+
+    /***
+     * Sets if the drawer opens to the size of its content instead of its full size.
+     * @param contentSized True if the drawer is content-sized, false otherwise.
+     * @return The AndroidDrawerSheet-object.
+     */
+    public AndroidDrawerSheet setContentSized(boolean contentSized) {
+        this.mContentSized = contentSized;
+        mContentLayoutGeneration++;
+        requestLayout();
+        return this;
+    }
+
+    /***
+     * Returns the maximum open size in pixels of a content-sized drawer. If it is 0, the size is only limited by the size of the AndroidDrawerSheet.
+     * @return The maximum open size in pixels.
+     */
+    public int getMaximumOpenSize() {
+        return mMaximumOpenSize;
+    }
+
+    /***
+     * Sets the maximum open size in pixels of a content-sized drawer. If it is 0, the size is only limited by the size of the AndroidDrawerSheet.
+     * @param maximumOpenSize The maximum open size in pixels.
+     * @return The AndroidDrawerSheet-object.
+     */
+    public AndroidDrawerSheet setMaximumOpenSize(int maximumOpenSize) {
+        this.mMaximumOpenSize = maximumOpenSize;
+        mContentLayoutGeneration++;
+        requestLayout();
+        return this;
+    }
+
+    /***
+     * Returns the metrics that are collected for this drawer, or null if no metrics are collected.
+     * @return The metrics.
+     */
+    public DrawerMetrics getDrawerMetrics() {
+        return mMetrics;
+    }
+
+    /***
+     * Sets the metrics that are collected for this drawer (see {@link DrawerMetrics}). By default, no metrics are collected.
+     * @param metrics The metrics, or null to stop collecting metrics.
+     * @return The AndroidDrawerSheet-object.
+     */
+    public AndroidDrawerSheet setDrawerMetrics(DrawerMetrics metrics) {
+        this.mMetrics = metrics;
+        mFrameRequestNanos = 0;
+        return this;
+    }
+
+    /***
+     * Returns true if the content of the drawer is hidden while the drawer rests in its closed position and no part of it is visible.
+     * @return True if closed content is hidden, false otherwise.
+     */
+    public boolean isHideClosedContent() {
+        return mHideClosedContent;
+    }
+
+    /***
+     * Sets if the content of the drawer is hidden while the drawer is closed and no part of it is visible.
+     * @param hideClosedContent True to hide closed content, false otherwise.
+     * @return The AndroidDrawerSheet-object.
+     */
+    public AndroidDrawerSheet setHideClosedContent(boolean hideClosedContent) {
+        this.mHideClosedContent = hideClosedContent;
+        updateContentVisibility();
+        return this;
+    }
+
+    /***
+     * Returns true if the drawer is marked as opaque.
+     * @return True if the drawer is opaque, false otherwise.
+     */
+    public boolean isDrawerOpaque() {
+        return mDrawerOpaque;
+    }
+
+    /***
+     * Marks the drawer as opaque, i.e. its content completely covers the drawer with opaque pixels. While an opaque drawer covers the whole
+     * AndroidDrawerSheet, {@link #isOpaque()} returns true.
+     * @param drawerOpaque True if the drawer is opaque, false otherwise.
+     * @return The AndroidDrawerSheet-object.
+     */
+    public AndroidDrawerSheet setDrawerOpaque(boolean drawerOpaque) {
+        this.mDrawerOpaque = drawerOpaque;
+        invalidate();
+        return this;
+    }
+
+    /***
+     * Returns true if the drawer can be opened by swiping from its edge while it is closed.
+     * @return True if edge swipe is enabled, false otherwise.
+     */
+    public boolean isEdgeSwipe() {
+        return mEdgeSwipe;
+    }
+
+    /***
+     * Sets if the drawer can be opened by swiping from its edge (see {@link #setEdgeWidth(int)}) while it is closed.
+     * @param edgeSwipe True to enable edge swipe, false otherwise.
+     * @return The AndroidDrawerSheet-object.
+     */
+    public AndroidDrawerSheet setEdgeSwipe(boolean edgeSwipe) {
+        this.mEdgeSwipe = edgeSwipe;
+        updateContentVisibility();
+        return this;
+    }
+
+    /***
+     * Returns the width in pixels of the zone along the edge of a closed drawer in which an edge swipe starts.
+     * @return The edge width in pixels.
+     */
+    public int getEdgeWidth() {
+        return mEdgeWidth;
+    }
+
+    /***
+     * Sets the width in pixels of the zone along the edge of a closed drawer in which an edge swipe starts. The default is 20dp.
+     * @param edgeWidth The edge width in pixels.
+     * @return The AndroidDrawerSheet-object.
+     */
+    public AndroidDrawerSheet setEdgeWidth(int edgeWidth) {
+        this.mEdgeWidth = Math.max(0, edgeWidth);
+        return this;
+    }
+
+    /***
+     * Returns the resource id of the content layout which is inflated when the drawer is dragged or opened for the first time. If it is 0, there is no content layout.
+     * @return The resource id of the content layout.
+     */
+    public int getContentLayout() {
+        return mContentLayout;
+    }
+
+    /***
+     * Sets the resource id of the content layout, which is inflated when the drawer is dragged or opened for the first time.
+     * @param contentLayout The resource id of the content layout, or 0 to remove the content layout.
+     * @return The AndroidDrawerSheet-object.
+     */
+    public AndroidDrawerSheet setContentLayout(int contentLayout) {
+        if(contentLayout == mContentLayout){
+            return this;
+        }
+        cancelPreInflation();
+        if(mContent != null){
+            mInnerContainer.removeView(mContent);
+            mContent = null;
+        }
+        this.mContentLayout = contentLayout;
+        if(contentLayout == 0 && mPlaceholder != null){
+            mInnerContainer.removeView(mPlaceholder);
+            mPlaceholder = null;
+        }
+        if(mDrawerState == DRAWER_STATE_OPEN || mDragging){
+            inflateContent();
+        }else{
+            showPlaceholder();
+            if(mPreInflateContent && ViewCompat.isAttachedToWindow(this)){
+                preInflateContent();
+            }
+        }
+        return this;
+    }
+
+    /***
+     * Returns the resource id of the placeholder layout which is shown in the drawer until the content layout has been inflated.
+     * @return The resource id of the placeholder layout.
+     */
+    public int getPlaceholderLayout() {
+        return mPlaceholderLayout;
+    }
+
+    /***
+     * Sets the resource id of a lightweight placeholder layout which is shown in the drawer, for example in its offset, until the content layout has been inflated.
+     * @param placeholderLayout The resource id of the placeholder layout, or 0 to show no placeholder.
+     * @return The AndroidDrawerSheet-object.
+     */
+    public AndroidDrawerSheet setPlaceholderLayout(int placeholderLayout) {
+        if(mPlaceholder != null){
+            mInnerContainer.removeView(mPlaceholder);
+            mPlaceholder = null;
+        }
+        this.mPlaceholderLayout = placeholderLayout;
+        showPlaceholder();
+        return this;
+    }
+
+    /***
+     * Returns true if the content layout is inflated on a worker thread as soon as the drawer is attached to a window.
+     * @return True if pre-inflation is enabled, false otherwise.
+     */
+    public boolean isPreInflateContent() {
+        return mPreInflateContent;
+    }
+
+    /***
+     * Sets if the content layout is inflated on a worker thread as soon as the drawer is attached to a window (see {@link #preInflateContent()}).
+     * @param preInflateContent True to enable pre-inflation, false to inflate the content when the drawer is dragged or opened for the first time.
+     * @return The AndroidDrawerSheet-object.
+     */
+    public AndroidDrawerSheet setPreInflateContent(boolean preInflateContent) {
+        this.mPreInflateContent = preInflateContent;
+        if(preInflateContent && ViewCompat.isAttachedToWindow(this)){
+            preInflateContent();
+        }
+        return this;
+    }
+
+    /***
+     * This listener interface provides methods that are being called when the drawer is opened or closed.
+     */
+    public interface OnInteractionListener{
+        /***
+         * This method is called before the drawer is closed.
+         */
+        void beforeDrawerClosed();
+
+        /***
+         * This method is called before the drawer is opened.
+         */
+        void beforeDrawerOpened();
+
+        /***
+         * This method is called after the drawer is closed.
+         */
+        void afterDrawerClosed();
+
+        /***
+         * This method is called after the drawer is opened.
+         */
+        void afterDrawerOpened();
+    }
+
+    /***
+     * This listener interface provides a method that is called when the drawer is resized.
+     */
+    public interface OnResizeListener{
+        /***
+         * This method is called when the drawer is resized.
+         * @param size The new size of the drawer is pixels.
+         */
+        void drawerResized(int size);
+    }
+
+    /***
+     * This listener interface provides a method that is called when the drawer comes to rest at another detent.
+     */
+    public interface OnDetentChangeListener{
+        /***
+         * This method is called when the drawer comes to rest at another detent.
+         * @param index The index of the detent, where 0 is the closed size and the last index is the open size.
+         * @param size The size of the detent in pixels.
+         */
+        void detentChanged(int index, int size);
+    }
+
+    /***
+     * This listener interface provides a method that is called with the open progress of the drawer when the drawer is resized.
+     */
+    public interface OnProgressListener{
+        /***
+         * This method is called when the drawer is resized.
+         * @param progress How far the drawer is open, from 0 if it is closed to 1 if it is completely open.
+         */
+        void drawerProgressChanged(float progress);
+    }
+
+    /***
+     * Returns the minimum opening size in pixels. This size determines how far the drawer has to be opened by the user, before it completely opens when the user releases it.
+     * @return The minimum opening size in pixels.
+     */
+    public int getMinimumOpeningSize() {
+        return mMinimumOpeningSize;
+    }
+
+    /***
+     * Sets the minimum opening size in pixels. This size determines how far the drawer has to be opened by the user, before it completely opens when the user releases it.
+     * @param minimumOpeningSize The minimum opening size in pixels.
+     */
+    public AndroidDrawerSheet setMinimumOpeningSize(int minimumOpeningSize) {
+        this.mMinimumOpeningSize = minimumOpeningSize;
+        return this;
+    }
+    /***
+     * Returns the minimum closing size in pixels. This size determines how far the drawer has to be closed by the user, before it completely closes when the user releases it.
+     * @return The minimum closing size in pixels.
+     */
+    public int getMinimumClosingSize() {
+        return mMinimumClosingSize;
+    }
+    /***
+     * Sets the minimum closing size in pixels. This size determines how far the drawer has to be closed by the user, before it completely closes when the user releases it.
+     * @param minimumClosingSize The minimum closing size in pixels.
+     */
+    public AndroidDrawerSheet setMinimumClosingSize(int minimumClosingSize) {
+        this.mMinimumClosingSize = minimumClosingSize;
+        return this;
+    }
+
+    /***
+     * Returns true if sticky drag is enabled. If sticky drag is enabled, the drawer will close completely, if the user releases the drawer after dragging it and the drawer is less then half open.
+     * The drawer will open completely, if the user releases the drawer after dragging it and the drawer is more then half open.
+     * If stick drag is enabled, minimum closing size and minimum opening size are ignored.
+     * @return True if sticky drag is enabled, false otherwise.
+     */
+    public boolean isStickyDrag() {
+        return mStickyDrag;
+    }
+    /***
+     * Set sticky drag enabled or disabled. If sticky drag is enabled, the drawer will close completely, if the user releases the drawer after dragging it and the drawer is less then half open.
+     * The drawer will open completely, if the user releases the drawer after dragging it and the drawer is more then half open.
+     * If stick drag is enabled, minimum closing size and minimum opening size are ignored.
+     * @param stickyDrag True to enabled sticky drag and false to disable it.
+     */
+    public AndroidDrawerSheet setStickyDrag(boolean stickyDrag) {
+        this.mStickyDrag = stickyDrag;
+        return this;
+    }
+
+    /***
+     * Detects and handles drags of the drawer.
+     */
+    private class DrawerListener{
+        /***
+         * The deceleration in dp per second squared that is used to project where a released drawer would come to rest.
+         */
+        private static final float PROJECTION_DECELERATION = 4000f;
+        private static final int INVALID_POINTER = -1;
+
+        private boolean mTracking = false;
+        private long mDownTime;
+        private float mDownX;
+        private float mDownY;
+        private int mActivePointerId = INVALID_POINTER;
+        private final Rect mDrawerBounds = new Rect();
+        private VelocityTracker mVelocityTracker;
+        private DrawerSheetCoordinator mVelocityTrackerCoordinator;
+        private final int mMaximumFlingVelocity;
+        private final DrawerDragCore mDragCore;
+
+        DrawerListener(){
+            ViewConfiguration viewConfiguration = ViewConfiguration.get(mContext);
+            mMaximumFlingVelocity = viewConfiguration.getScaledMaximumFlingVelocity();
+            mDragCore = new DrawerDragCore(viewConfiguration.getScaledTouchSlop(), viewConfiguration.getScaledMinimumFlingVelocity(),
+                    PROJECTION_DECELERATION * getResources().getDisplayMetrics().density);
+        }
+
+        /***
+         * Processes a touch event that is either intercepted from or not consumed by the children of the drawer.
+         * @param event The motion event.
+         * @return True if the touch is tracked by the drawer.
+         */
+        boolean onTouch(MotionEvent event) {
+            int action = event.getActionMasked();
+            if(action == MotionEvent.ACTION_DOWN) {
+                if(mTracking && event.getDownTime() == mDownTime){
+                    // A down event that is not consumed by a child, or that is intercepted, is passed to onTouchEvent after onInterceptTouchEvent
+                    // has already processed it, so it must not begin another gesture.
+                    return true;
+                }
+                int size = mSize;
+                if(mEdgeSwipe && mDrawerState == DRAWER_STATE_CLOSED && !mSettleAnimation.isRunning()){
+                    // A closed drawer is caught within the edge zone, even if nothing of it is laid out.
+                    size = Math.max(size, mEdgeWidth);
+                }
+                mAlignmentStrategy.getDrawerBounds(mDrawerBounds, getWidth(), getHeight(), size);
+                mTracking = mDrawerBounds.contains((int) event.getX(), (int) event.getY());
+                if(!mTracking){
+                    return false;
+                }
+                mVelocityTracker = obtainVelocityTracker();
+                if(mVelocityTracker == null){
+                    // Another drawer of the same coordinator is being dragged.
+                    mTracking = false;
+                    return false;
+                }
+                if(mMetrics != null){
+                    mMetrics.beginGesture();
+                }
+                mActivePointerId = event.getPointerId(0);
+                mDownTime = event.getDownTime();
+                mDownX = event.getX();
+                mDownY = event.getY();
+                int rawSize = mAlignmentStrategy.calculateRawSize(event, 0);
+                mDragCore.down(rawSize);
+                addMovement(event);
+                if(mSettleAnimation.isRunning()){
+                    // The drawer is caught while it is settling, so the drag starts right away.
+                    mSettleAnimation.cancel();
+                    startDrag(rawSize);
+                }
+            }else if(action == MotionEvent.ACTION_MOVE) {
+                if(!mTracking){
+                    return false;
+                }
+                addMovement(event);
+                int pointerIndex = event.findPointerIndex(mActivePointerId);
+                if(pointerIndex < 0){
+                    return true;
+                }
+                int rawSize = mAlignmentStrategy.calculateRawSize(event, pointerIndex);
+                if(!mDragging && mDragCore.exceedsTouchSlop(rawSize)){
+                    if(canScrollContent(mInnerContainer, mDownX, mDownY, mDragCore.dragDistance(rawSize))){
+                        // The content under the finger scrolls first. Once it reaches its end, a nested scroll hands off to the drawer.
+                        stopTracking();
+                        return false;
+                    }
+                    startDrag(rawSize);
+                }
+                if(mDragging) {
+                    int size = mDragCore.dragSize(rawSize, mOffset, mFullSize);
+                    // Touch events can arrive several times per frame, so only the latest position is applied with the next frame.
+                    mPendingDragSize = size;
+                    mDragPending = true;
+                    scheduleFrame();
+                }
+            }else if(action == MotionEvent.ACTION_POINTER_DOWN) {
+                if(!mTracking){
+                    return false;
+                }
+                // The drawer keeps following the finger that went down first.
+                addMovement(event);
+            }else if(action == MotionEvent.ACTION_POINTER_UP) {
+                if(!mTracking){
+                    return false;
+                }
+                addMovement(event);
+                int pointerIndex = event.getActionIndex();
+                if(event.getPointerId(pointerIndex) == mActivePointerId){
+                    // The drawer is handed off to another finger from the current position, so it does not jump.
+                    int newPointerIndex = pointerIndex == 0 ? 1 : 0;
+                    mActivePointerId = event.getPointerId(newPointerIndex);
+                    int rawSize = mAlignmentStrategy.calculateRawSize(event, newPointerIndex);
+                    if(mDragging){
+                        mDragCore.startDrag(rawSize, mDragPending ? mPendingDragSize : mSize);
+                    }else{
+                        mDragCore.down(rawSize);
+                    }
+                }
+            }else if(action == MotionEvent.ACTION_UP || action == MotionEvent.ACTION_CANCEL) {
+                if(!mTracking){
+                    return false;
+                }
+                mTracking = false;
+                float velocity = 0;
+                if(action == MotionEvent.ACTION_UP) {
+                    addMovement(event);
+                    mVelocityTracker.computeCurrentVelocity(1000, mMaximumFlingVelocity);
+                    velocity = mAlignmentStrategy.getOpeningVelocity(mVelocityTracker, mActivePointerId);
+                }
+                recycleVelocityTracker();
+
+                if(mDragging) {
+                    mDragging = false;
+                    flushDrag();
+                    if(mMetrics != null){
+                        mMetrics.endGesture();
+                    }
+                    int pointerIndex = Math.max(0, event.findPointerIndex(mActivePointerId));
+                    release(mDragCore.releaseSize(mAlignmentStrategy.calculateRawSize(event, pointerIndex)), velocity);
+                }else if(mMetrics != null){
+                    mMetrics.endGesture();
+                }
+                return true;
+            }
+            return mTracking;
+        }
+
+        /***
+         * Returns true if a view at the touch position, or one of its descendants, can scroll in the direction of the drag.
+         * @param view The view.
+         * @param x The x coordinate of the touch position in the coordinates of the parent of the view.
+         * @param y The y coordinate of the touch position in the coordinates of the parent of the view.
+         * @param openingDistance How far the touch has moved, positive in opening direction.
+         * @return True if the touch has to be left to the content.
+         */
+        private boolean canScrollContent(View view, float x, float y, int openingDistance){
+            if(view.getVisibility() != VISIBLE){
+                return false;
+            }
+            float left = view.getLeft() + ViewCompat.getTranslationX(view);
+            float top = view.getTop() + ViewCompat.getTranslationY(view);
+            if(x < left || x >= left + view.getWidth() || y < top || y >= top + view.getHeight()){
+                return false;
+            }
+            if(view != mInnerContainer && mAlignmentStrategy.canScroll(view, openingDistance)){
+                return true;
+            }
+            if(view instanceof ViewGroup){
+                ViewGroup group = (ViewGroup) view;
+                float childX = x - left + view.getScrollX();
+                float childY = y - top + view.getScrollY();
+                for(int i = group.getChildCount() - 1; i >= 0; i--){
+                    if(canScrollContent(group.getChildAt(i), childX, childY, openingDistance)){
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        /***
+         * Stops tracking the current touch, if there is one, e.g. because the drawer is detached from its window.
+         */
+        void cancelTracking(){
+            if(mTracking){
+                stopTracking();
+            }
+        }
+
+        /***
+         * Stops tracking the current touch without moving the drawer.
+         */
+        private void stopTracking(){
+            mTracking = false;
+            recycleVelocityTracker();
+            if(mMetrics != null){
+                mMetrics.endGesture();
+            }
+        }
+
+        /***
+         * Returns the velocity tracker for a new touch, which is shared by all drawers of a coordinator.
+         * @return The cleared velocity tracker, or null if another drawer of the same coordinator is tracking a touch.
+         */
+        private VelocityTracker obtainVelocityTracker(){
+            if(mVelocityTracker != null && mVelocityTrackerCoordinator != mCoordinator){
+                // The end of the last touch has not been seen and the coordinator has changed since, so the old tracker goes back to its owner.
+                recycleVelocityTracker();
+            }
+            mVelocityTrackerCoordinator = mCoordinator;
+            if(mCoordinator != null){
+                return mCoordinator.obtainVelocityTracker(AndroidDrawerSheet.this);
+            }
+            if(mVelocityTracker == null){
+                return VelocityTracker.obtain();
+            }
+            mVelocityTracker.clear();
+            return mVelocityTracker;
+        }
 
-        /***
-         * This method is called before the drawer is opened.
-         */
-        void beforeDrawerOpened();
+        private void recycleVelocityTracker(){
+            if(mVelocityTrackerCoordinator != null){
+                mVelocityTrackerCoordinator.releaseVelocityTracker(AndroidDrawerSheet.this);
+                mVelocityTrackerCoordinator = null;
+            }else if(mVelocityTracker != null){
+                mVelocityTracker.recycle();
+            }
+            mVelocityTracker = null;
+        }
 
         /***
-         * This method is called after the drawer is closed.
+         * Starts dragging the drawer from its current size, so it does not jump to the touch position.
+         * @param rawSize The raw size at the current touch position.
          */
-        void afterDrawerClosed();
+        private void startDrag(int rawSize){
+            inflateContent();
+            showContent();
+            if(mMetrics != null){
+                mMetrics.beginCycle();
+            }
+            mDragging = true;
+            mDragCore.startDrag(rawSize, mSize);
+            setContentLayerEnabled(true);
+            if(getParent() != null) {
+                getParent().requestDisallowInterceptTouchEvent(true);
+            }
+        }
 
         /***
-         * This method is called after the drawer is opened.
+         * Settles the released drawer at the position projected from the release velocity.
+         * @param releaseSize The size of the drawer at the release in pixels.
+         * @param velocity The release velocity in pixels per second, positive in opening direction.
          */
-        void afterDrawerOpened();
-    }
+        void release(int releaseSize, float velocity){
+            velocity = mDragCore.effectiveVelocity(velocity);
+            int size = mDragCore.project(releaseSize, velocity, mOffset, mFullSize);
+            size = DrawerDragCore.snap(size, mOffset, mFullSize, hasDetents() ? getDetentTable() : null,
+                    mMinimumClosingSize, mMinimumOpeningSize, mStickyDrag);
+            int drawerState=mDrawerState;
+            if(size == mOffset){
+                drawerState = DRAWER_STATE_CLOSED;
+            }else if(size == mFullSize || hasDetents()){
+                drawerState = DRAWER_STATE_OPEN;
+            }
+            settleDrawer(size, drawerState, DrawerDragCore.settleDuration(size - mSize, velocity, mSettleDuration, mFullSize - mOffset));
+        }
 
-    /***
-     * This listener interface provides a method that is called when the drawer is resized.
-     */
-    public interface OnResizeListener{
         /***
-         * This method is called when the drawer is resized.
-         * @param size The new size of the drawer is pixels.
+         * Adds the movement to the velocity tracker in window coordinates, which are computed from the cached window offset of the drawer.
+         * @param event The motion event.
          */
-        void drawerResized(int size);
+        private void addMovement(MotionEvent event){
+            float deltaX = mWindowLocation[0];
+            float deltaY = mWindowLocation[1];
+            event.offsetLocation(deltaX, deltaY);
+            mVelocityTracker.addMovement(event);
+            event.offsetLocation(-deltaX, -deltaY);
+        }
     }
 
     /***
-     * Returns the minimum opening size in pixels. This size determines how far the drawer has to be opened by the user, before it completely opens when the user releases it.
-     * @return The minimum opening size in pixels.
+     * The inner ViewGroup that holds all the children of the drawer and counts the layout requests of its content.
      */
-    public int getMinimumOpeningSize() {
-        return mMinimumOpeningSize;
-    }
+    private class DrawerContainer extends FrameLayout{
+        DrawerContainer(Context context, AttributeSet attrs, int defStyleAttr) {
+            super(context, attrs, defStyleAttr);
+        }
 
-    /***
-     * Sets the minimum opening size in pixels. This size determines how far the drawer has to be opened by the user, before it completely opens when the user releases it.
-     * @param minimumOpeningSize The minimum opening size in pixels.
-     */
-    public AndroidDrawerSheet setMinimumOpeningSize(int minimumOpeningSize) {
-        this.mMinimumOpeningSize = minimumOpeningSize;
-        return this;
-    }
-    /***
-     * Returns the minimum closing size in pixels. This size determines how far the drawer has to be closed by the user, before it completely closes when the user releases it.
-     * @return The minimum closing size in pixels.
-     */
-    public int getMinimumClosingSize() {
-        return mMinimumClosingSize;
-    }
-    /***
-     * Sets the minimum closing size in pixels. This size determines how far the drawer has to be closed by the user, before it completely closes when the user releases it.
-     * @param minimumClosingSize The minimum closing size in pixels.
-     */
-    public AndroidDrawerSheet setMinimumClosingSize(int minimumClosingSize) {
-        this.mMinimumClosingSize = minimumClosingSize;
-        return this;
-    }
+        @TargetApi(Build.VERSION_CODES.LOLLIPOP)
+        DrawerContainer(Context context, AttributeSet attrs, int defStyleAttr, int defStyleRes) {
+            super(context, attrs, defStyleAttr, defStyleRes);
+        }
 
-    /***
-     * Returns true if sticky drag is enabled. If sticky drag is enabled, the drawer will close completely, if the user releases the drawer after dragging it and the drawer is less then half open.
-     * The drawer will open completely, if the user releases the drawer after dragging it and the drawer is more then half open.
-     * If stick drag is enabled, minimum closing size and minimum opening size are ignored.
-     * @return True if sticky drag is enabled, false otherwise.
-     */
-    public boolean isStickyDrag() {
-        return mStickyDrag;
+        @Override
+        public void requestLayout() {
+            if(!mApplyingSize){
+                mContentLayoutGeneration++;
+            }
+            super.requestLayout();
+        }
+
+        @Override
+        protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+            if(mMetrics != null){
+                mMetrics.onMeasure();
+            }
+            super.onMeasure(widthMeasureSpec, heightMeasureSpec);
+        }
+
+        @Override
+        protected void onLayout(boolean changed, int left, int top, int right, int bottom) {
+            if(mMetrics != null){
+                mMetrics.onLayout();
+            }
+            super.onLayout(changed, left, top, right, bottom);
+        }
     }
+
     /***
-     * Set sticky drag enabled or disabled. If sticky drag is enabled, the drawer will close completely, if the user releases the drawer after dragging it and the drawer is less then half open.
-     * The drawer will open completely, if the user releases the drawer after dragging it and the drawer is more then half open.
-     * If stick drag is enabled, minimum closing size and minimum opening size are ignored.
-     * @param stickyDrag True to enabled sticky drag and false to disable it.
+     * Animates the drawer to a target size. The animation is advanced by {@link #doFrame()}.
      */
-    public AndroidDrawerSheet setStickyDrag(boolean stickyDrag) {
-        this.mStickyDrag = stickyDrag;
-        return this;
-    }
+    private class SettleAnimation{
+        private int mStartSize;
+        private int mTargetSize;
+        private long mStartTime;
+        private int mDuration;
+        private boolean mRunning = false;
 
-    private class DrawerListener implements OnTouchListener{
-        int mTouchPositionDifference = 0;
+        void start(int startSize, int targetSize, int duration){
+            mStartSize = startSize;
+            mTargetSize = targetSize;
+            mDuration = duration;
+            mStartTime = AnimationUtils.currentAnimationTimeMillis();
+            mRunning = true;
+            setContentLayerEnabled(true);
+            scheduleFrame();
+        }
 
-        android.view.GestureDetector gestureDetector = new android.view.GestureDetector(mContext, new android.view.GestureDetector.OnGestureListener() {
-            @Override
-            public boolean onDown(MotionEvent e) {
-                return false;
-            }
-            @Override
-            public void onShowPress(MotionEvent e) {
+        void cancel(){
+            mRunning = false;
+        }
+
+        boolean isRunning(){
+            return mRunning;
+        }
+
+        /***
+         * Stops the animation and moves the drawer to the target size immediately.
+         */
+        void end(){
+            if(mRunning){
+                cancel();
+                setDrawerSize(mTargetSize);
+                notifyOnResizeListeners(mTargetSize);
+                finishSettling();
             }
-            @Override
-            public boolean onSingleTapUp(MotionEvent e) {
+        }
+
+        /***
+         * Moves the drawer to the position of the current animation frame.
+         * @return True if the animation needs another frame, false if it has finished.
+         */
+        boolean step() {
+            if(!mRunning){
                 return false;
             }
-            @Override
-            public boolean onScroll(MotionEvent e1, MotionEvent e2, float distanceX, float distanceY) {
-                return false;
+            float fraction = Math.min(1f, (AnimationUtils.currentAnimationTimeMillis() - mStartTime) / (float) mDuration);
+            int size = mStartSize + Math.round((mTargetSize - mStartSize) * mSettleInterpolator.getInterpolation(fraction));
+            if(size != mSize){
+                setDrawerSize(size);
+                notifyOnResizeListeners(size);
             }
-            @Override
-            public void onLongPress(MotionEvent e) {
+            if(fraction < 1f){
+                return true;
             }
+            mRunning = false;
+            finishSettling();
+            return false;
+        }
+    }
+
+    /***
+     * Inflates a content layout on the inflater thread and hands the result to the drawer on the main thread.
+     */
+    private static final class PreInflateTask implements Runnable{
+        private final int mContentLayout;
+        private volatile AndroidDrawerSheet mDrawerSheet;
+        private volatile LayoutInflater mInflater;
+        private volatile ViewGroup mRoot;
+        private View mContent;
+        private final Runnable mDeliverCallback = new Runnable() {
             @Override
-            public boolean onFling(MotionEvent e1, MotionEvent e2, float velocityX, float velocityY) {
-                int size = 0;
-                int oldDrawerState = mDrawerState;
-                if(mAlignmentStrategy.isSwipeClose(e1, e2, velocityX, velocityY)){
-                    size = mOffset;
-                    mDrawerState = DRAWER_STATE_CLOSED;
-                }else if(mAlignmentStrategy.isSwipeOpen(e1, e2, velocityX, velocityY)){
-                    size = mFullSize;
-                    mDrawerState = DRAWER_STATE_OPEN;
-                }else{
-                    return false;
-                }
-                ViewGroup.LayoutParams layoutParams= mInnerContainer.getLayoutParams();
-                mAlignmentStrategy.setSize(layoutParams, size);
-                notifyOnResizeListeners(size + mOffset);
-                if(oldDrawerState!=mDrawerState){
-                    notifyOnInteractionListeners(mDrawerState == DRAWER_STATE_OPEN, true);
+            public void run() {
+                AndroidDrawerSheet drawerSheet = mDrawerSheet;
+                View content = mContent;
+                mContent = null;
+                if(drawerSheet != null){
+                    drawerSheet.onContentPreInflated(PreInflateTask.this, content);
                 }
-                mInnerContainer.setLayoutParams(layoutParams);
-                if(oldDrawerState!=mDrawerState) {
-                    notifyOnInteractionListeners(mDrawerState == DRAWER_STATE_OPEN, false);
-                }
-                return true;
             }
-        });
+        };
 
-        @Override
-        public boolean onTouch(View v, MotionEvent event) {
-            if(gestureDetector.onTouchEvent(event)){
-                return true;
-            }
+        PreInflateTask(AndroidDrawerSheet drawerSheet, int contentLayout){
+            mDrawerSheet = drawerSheet;
+            mContentLayout = contentLayout;
+            mInflater = LayoutInflater.from(drawerSheet.getContext()).cloneInContext(drawerSheet.getContext());
+            mRoot = drawerSheet.mInnerContainer;
+        }
 
-            if(event.getAction() == MotionEvent.ACTION_DOWN) {
-                mDragging = true;
-                mTouchPositionDifference = mAlignmentStrategy.calculateTouchPositionDifference(v, event);
-            }else if(event.getAction() == MotionEvent.ACTION_MOVE) {
-                if(mDragging) {
-                    ViewGroup.LayoutParams layoutParams=v.getLayoutParams();
-                    int size = mAlignmentStrategy.calculateRawSize(v.getRootView(), event);
-                    size+= mTouchPositionDifference;
-                    size=Math.max(size, mOffset);
-                    size=Math.min(size, mFullSize);
-                    mAlignmentStrategy.setSize(layoutParams, size);
-                    v.setLayoutParams(layoutParams);
-                    notifyOnResizeListeners(size + mOffset);
-                }
-            }else if(event.getAction() == MotionEvent.ACTION_UP && mDragging) {
-                mDragging =false;
-
-                ViewGroup.LayoutParams layoutParams=v.getLayoutParams();
-                int size = mAlignmentStrategy.calculateRawSize(v.getRootView(), event);
-                size = size + mTouchPositionDifference;
-                int oldDrawerState=mDrawerState;
-                if((size <= mMinimumClosingSize)||(mStickyDrag && size < mFullSize / 2)){
-                    size=mOffset;
-                    mDrawerState = DRAWER_STATE_CLOSED;
-                }
-                if((size >= mFullSize - mMinimumOpeningSize)||(mStickyDrag && size >= mFullSize / 2)){
-                    size = mFullSize;
-                    mDrawerState = DRAWER_STATE_OPEN;
-                }
-                mAlignmentStrategy.setSize(layoutParams, size);
-                if(oldDrawerState != mDrawerState){
-                    notifyOnInteractionListeners(mDrawerState == DRAWER_STATE_OPEN, true);
-                }
-                v.setLayoutParams(layoutParams);
-                notifyOnResizeListeners(size+mOffset);
-                if(oldDrawerState != mDrawerState) {
-                    notifyOnInteractionListeners(mDrawerState == DRAWER_STATE_OPEN, false);
+        @Override
+        public void run() {
+            LayoutInflater inflater = mInflater;
+            ViewGroup root = mRoot;
+            View content = null;
+            if(inflater != null && root != null){
+                try{
+                    content = inflater.inflate(mContentLayout, root, false);
+                }catch (RuntimeException e){
+                    // Some views can only be created on the main thread, so the content is inflated when it is needed.
+                    content = null;
                 }
             }
-            return true;
+            finishInflation();
+            if(mDrawerSheet != null){
+                mContent = content;
+                getMainHandler().post(mDeliverCallback);
+            }
         }
 
-
+        /***
+         * Called on the main thread.
+         */
+        void cancel(){
+            mDrawerSheet = null;
+            mInflater = null;
+            mRoot = null;
+            getMainHandler().removeCallbacks(mDeliverCallback);
+            mContent = null;
+        }
     }
 
-
     private interface AlignmentStrategy{
-        int SWIPE_THRESHOLD_VELOCITY = 200;
-        int SWIPE_MIN_DISTANCE = 20;
         int ELEVATION_SHADOW=6;
-        int getAlignment();
-        boolean isSwipeClose(MotionEvent e1, MotionEvent e2, float velocityX, float velocityY);
-        boolean isSwipeOpen(MotionEvent e1, MotionEvent e2, float velocityX, float velocityY);
+        int SHADOW_COLOR=0x40000000;
+        float getOpeningVelocity(VelocityTracker velocityTracker, int pointerId);
         void setSize(ViewGroup.LayoutParams layoutParams, int size);
         int getSize(View view);
         int getSize(ViewGroup.LayoutParams layoutParams);
         void setPadding(View view, int padding);
-        int calculateRawSize(View v, MotionEvent event);
-        int calculateTouchPositionDifference(View v, MotionEvent event);
+        void setTranslation(View view, int hiddenSize);
+        int calculateRawSize(MotionEvent event, int pointerIndex);
         void setOuterAlignment();
-        void setShadowMargins(RelativeLayout.LayoutParams layoutParams);
+        void clearOuterAlignment();
+        void setShadowMargins(MarginLayoutParams layoutParams);
+        void layoutContent(View view, int width, int height);
+        void getScrimBounds(Rect rect, int width, int height, int size);
+        void getDrawerBounds(Rect rect, int width, int height, int size);
+        void getShadowBounds(Rect rect, int width, int height, int size);
+        Paint getShadowPaint();
+        int getNestedScrollAxis();
+        int getOpeningScrollDelta(int dx, int dy);
+        /***
+         * Returns true if the view can scroll in the opposite direction of the opening distance.
+         */
+        boolean canScroll(View view, int openingDistance);
     }
     private class TopAlignmentStrategy implements AlignmentStrategy{
+        private Paint mShadowPaint;
+
         @Override
-        public int getAlignment() {
-            return RelativeLayout.ALIGN_PARENT_TOP;
-        }
-        @Override
-        public boolean isSwipeClose(MotionEvent e1, MotionEvent e2, float velocityX, float velocityY) {
-            return (velocityY < -1 *SWIPE_THRESHOLD_VELOCITY && (e1.getRawY() - e2.getRawY()) > SWIPE_MIN_DISTANCE);
-        }
-        @Override
-        public boolean isSwipeOpen(MotionEvent e1, MotionEvent e2, float velocityX, float velocityY) {
-            return (velocityY > SWIPE_THRESHOLD_VELOCITY && (e2.getRawY() - e1.getRawY()) > SWIPE_MIN_DISTANCE);
+        public float getOpeningVelocity(VelocityTracker velocityTracker, int pointerId) {
+            return DrawerDragCore.openingVelocity(velocityTracker.getYVelocity(pointerId), DrawerDragCore.SIGN_POSITIVE);
         }
         @Override
         public void setSize(ViewGroup.LayoutParams layoutParams, int size) {
@@ -666,13 +2569,13 @@ public class AndroidDrawerSheet extends FrameLayout {
             view.setPadding(0, 0, 0, padding);
         }
         @Override
-        public int calculateRawSize(View v, MotionEvent event) {
-            return (int)event.getRawY();
+        public void setTranslation(View view, int hiddenSize) {
+            ViewCompat.setTranslationY(view, -hiddenSize);
         }
 
         @Override
-        public int calculateTouchPositionDifference(View v, MotionEvent event) {
-            return getSize(v.getLayoutParams()) - calculateRawSize(v, event);
+        public int calculateRawSize(MotionEvent event, int pointerIndex) {
+            return DrawerDragCore.rawSize(event.getY(pointerIndex) + mWindowLocation[1], mRootHeight, DrawerDragCore.SIGN_POSITIVE);
         }
 
         @Override
@@ -685,24 +2588,70 @@ public class AndroidDrawerSheet extends FrameLayout {
         }
 
         @Override
-        public void setShadowMargins(RelativeLayout.LayoutParams layoutParams) {
+        public void clearOuterAlignment() {
+            if(getLayoutParams() instanceof RelativeLayout.LayoutParams){
+                ((RelativeLayout.LayoutParams) getLayoutParams()).addRule(RelativeLayout.ALIGN_PARENT_TOP, 0);
+            }
+        }
+
+        @Override
+        public void setShadowMargins(MarginLayoutParams layoutParams) {
             layoutParams.setMargins(0, 0, 0, ELEVATION_SHADOW);
         }
-    }
-    private class BottomAlignmentStrategy implements AlignmentStrategy{
+
+        @Override
+        public void layoutContent(View view, int width, int height) {
+            MarginLayoutParams layoutParams = (MarginLayoutParams) view.getLayoutParams();
+            int childLeft = getPaddingLeft() + layoutParams.leftMargin;
+            int childTop = getPaddingTop() + layoutParams.topMargin;
+            view.layout(childLeft, childTop, childLeft + view.getMeasuredWidth(), childTop + view.getMeasuredHeight());
+        }
+
+        @Override
+        public void getScrimBounds(Rect rect, int width, int height, int size) {
+            rect.set(0, size, width, height);
+        }
+
+        @Override
+        public void getDrawerBounds(Rect rect, int width, int height, int size) {
+            rect.set(0, 0, width, size);
+        }
+
+        @Override
+        public void getShadowBounds(Rect rect, int width, int height, int size) {
+            rect.set(0, size, width, size + ELEVATION_SHADOW);
+        }
+
+        @Override
+        public Paint getShadowPaint() {
+            if(mShadowPaint == null){
+                mShadowPaint = new Paint();
+                mShadowPaint.setShader(new LinearGradient(0, 0, 0, ELEVATION_SHADOW, SHADOW_COLOR, 0, Shader.TileMode.CLAMP));
+            }
+            return mShadowPaint;
+        }
+
         @Override
-        public int getAlignment() {
-            return RelativeLayout.ALIGN_PARENT_BOTTOM;
+        public int getNestedScrollAxis() {
+            return ViewCompat.SCROLL_AXIS_VERTICAL;
         }
 
         @Override
-        public boolean isSwipeClose(MotionEvent e1, MotionEvent e2, float velocityX, float velocityY) {
-            return (velocityY > SWIPE_THRESHOLD_VELOCITY && (e2.getRawY()-e1.getRawY()) > SWIPE_MIN_DISTANCE);
+        public int getOpeningScrollDelta(int dx, int dy) {
+            return DrawerDragCore.openingScrollDelta(dy, DrawerDragCore.SIGN_POSITIVE);
         }
 
         @Override
-        public boolean isSwipeOpen(MotionEvent e1, MotionEvent e2, float velocityX, float velocityY) {
-            return (velocityY < -1 * SWIPE_THRESHOLD_VELOCITY && (e1.getRawY() - e2.getRawY()) > SWIPE_MIN_DISTANCE);
+        public boolean canScroll(View view, int openingDistance) {
+            return ViewCompat.canScrollVertically(view, openingDistance > 0 ? -1 : 1);
+        }
+    }
+    private class BottomAlignmentStrategy implements AlignmentStrategy{
+        private Paint mShadowPaint;
+
+        @Override
+        public float getOpeningVelocity(VelocityTracker velocityTracker, int pointerId) {
+            return DrawerDragCore.openingVelocity(velocityTracker.getYVelocity(pointerId), DrawerDragCore.SIGN_NEGATIVE);
         }
 
         @Override
@@ -726,13 +2675,13 @@ public class AndroidDrawerSheet extends FrameLayout {
         }
 
         @Override
-        public int calculateRawSize(View v, MotionEvent event) {
-            return v.getRootView().getHeight()-(int)event.getRawY();
+        public void setTranslation(View view, int hiddenSize) {
+            ViewCompat.setTranslationY(view, hiddenSize);
         }
 
         @Override
-        public int calculateTouchPositionDifference(View v, MotionEvent event) {
-            return getSize(v.getLayoutParams()) - calculateRawSize(v, event);
+        public int calculateRawSize(MotionEvent event, int pointerIndex) {
+            return DrawerDragCore.rawSize(event.getY(pointerIndex) + mWindowLocation[1], mRootHeight, DrawerDragCore.SIGN_NEGATIVE);
         }
 
         @Override
@@ -743,25 +2692,71 @@ public class AndroidDrawerSheet extends FrameLayout {
                 ((LayoutParams) getLayoutParams()).gravity= Gravity.BOTTOM;
             }
         }
+
+        @Override
+        public void clearOuterAlignment() {
+            if(getLayoutParams() instanceof RelativeLayout.LayoutParams){
+                ((RelativeLayout.LayoutParams) getLayoutParams()).addRule(RelativeLayout.ALIGN_PARENT_BOTTOM, 0);
+            }
+        }
         @Override
-        public void setShadowMargins(RelativeLayout.LayoutParams layoutParams) {
+        public void setShadowMargins(MarginLayoutParams layoutParams) {
             layoutParams.setMargins(0, ELEVATION_SHADOW, 0, 0);
         }
-    }
-    private class LeftAlignmentStrategy implements AlignmentStrategy{
+
+        @Override
+        public void layoutContent(View view, int width, int height) {
+            MarginLayoutParams layoutParams = (MarginLayoutParams) view.getLayoutParams();
+            int childLeft = getPaddingLeft() + layoutParams.leftMargin;
+            int childBottom = height - getPaddingBottom() - layoutParams.bottomMargin;
+            view.layout(childLeft, childBottom - view.getMeasuredHeight(), childLeft + view.getMeasuredWidth(), childBottom);
+        }
+
+        @Override
+        public void getScrimBounds(Rect rect, int width, int height, int size) {
+            rect.set(0, 0, width, height - size);
+        }
+
+        @Override
+        public void getDrawerBounds(Rect rect, int width, int height, int size) {
+            rect.set(0, height - size, width, height);
+        }
+
+        @Override
+        public void getShadowBounds(Rect rect, int width, int height, int size) {
+            rect.set(0, height - size - ELEVATION_SHADOW, width, height - size);
+        }
+
+        @Override
+        public Paint getShadowPaint() {
+            if(mShadowPaint == null){
+                mShadowPaint = new Paint();
+                mShadowPaint.setShader(new LinearGradient(0, ELEVATION_SHADOW, 0, 0, SHADOW_COLOR, 0, Shader.TileMode.CLAMP));
+            }
+            return mShadowPaint;
+        }
+
+        @Override
+        public int getNestedScrollAxis() {
+            return ViewCompat.SCROLL_AXIS_VERTICAL;
+        }
+
         @Override
-        public int getAlignment() {
-            return RelativeLayout.ALIGN_PARENT_LEFT;
+        public int getOpeningScrollDelta(int dx, int dy) {
+            return DrawerDragCore.openingScrollDelta(dy, DrawerDragCore.SIGN_NEGATIVE);
         }
 
         @Override
-        public boolean isSwipeClose(MotionEvent e1, MotionEvent e2, float velocityX, float velocityY) {
-            return (velocityX < -1*SWIPE_THRESHOLD_VELOCITY && (e1.getRawX() - e2.getRawX()) > SWIPE_MIN_DISTANCE);
+        public boolean canScroll(View view, int openingDistance) {
+            return ViewCompat.canScrollVertically(view, openingDistance > 0 ? 1 : -1);
         }
+    }
+    private class LeftAlignmentStrategy implements AlignmentStrategy{
+        private Paint mShadowPaint;
 
         @Override
-        public boolean isSwipeOpen(MotionEvent e1, MotionEvent e2, float velocityX, float velocityY) {
-            return (velocityX > SWIPE_THRESHOLD_VELOCITY && (e2.getRawX() - e1.getRawX()) > SWIPE_MIN_DISTANCE);
+        public float getOpeningVelocity(VelocityTracker velocityTracker, int pointerId) {
+            return DrawerDragCore.openingVelocity(velocityTracker.getXVelocity(pointerId), DrawerDragCore.SIGN_POSITIVE);
         }
 
         @Override
@@ -785,13 +2780,13 @@ public class AndroidDrawerSheet extends FrameLayout {
         }
 
         @Override
-        public int calculateRawSize(View v, MotionEvent event) {
-            return (int)event.getRawX();
+        public void setTranslation(View view, int hiddenSize) {
+            ViewCompat.setTranslationX(view, -hiddenSize);
         }
 
         @Override
-        public int calculateTouchPositionDifference(View v, MotionEvent event) {
-            return getSize(v.getLayoutParams()) - calculateRawSize(v, event);
+        public int calculateRawSize(MotionEvent event, int pointerIndex) {
+            return DrawerDragCore.rawSize(event.getX(pointerIndex) + mWindowLocation[0], mRootWidth, DrawerDragCore.SIGN_POSITIVE);
         }
 
         @Override
@@ -802,25 +2797,71 @@ public class AndroidDrawerSheet extends FrameLayout {
                 ((LayoutParams) getLayoutParams()).gravity= Gravity.LEFT;
             }
         }
+
+        @Override
+        public void clearOuterAlignment() {
+            if(getLayoutParams() instanceof RelativeLayout.LayoutParams){
+                ((RelativeLayout.LayoutParams) getLayoutParams()).addRule(RelativeLayout.ALIGN_PARENT_LEFT, 0);
+            }
+        }
         @Override
-        public void setShadowMargins(RelativeLayout.LayoutParams layoutParams) {
+        public void setShadowMargins(MarginLayoutParams layoutParams) {
             layoutParams.setMargins(0, 0, ELEVATION_SHADOW, 0);
         }
-    }
-    private class RightAlignmentStrategy implements AlignmentStrategy{
+
+        @Override
+        public void layoutContent(View view, int width, int height) {
+            MarginLayoutParams layoutParams = (MarginLayoutParams) view.getLayoutParams();
+            int childLeft = getPaddingLeft() + layoutParams.leftMargin;
+            int childTop = getPaddingTop() + layoutParams.topMargin;
+            view.layout(childLeft, childTop, childLeft + view.getMeasuredWidth(), childTop + view.getMeasuredHeight());
+        }
+
+        @Override
+        public void getScrimBounds(Rect rect, int width, int height, int size) {
+            rect.set(size, 0, width, height);
+        }
+
         @Override
-        public int getAlignment() {
-            return RelativeLayout.ALIGN_PARENT_RIGHT;
+        public void getDrawerBounds(Rect rect, int width, int height, int size) {
+            rect.set(0, 0, size, height);
         }
 
         @Override
-        public boolean isSwipeClose(MotionEvent e1, MotionEvent e2, float velocityX, float velocityY) {
-            return (velocityX > SWIPE_THRESHOLD_VELOCITY && (e2.getRawX() - e1.getRawX()) > SWIPE_MIN_DISTANCE);
+        public void getShadowBounds(Rect rect, int width, int height, int size) {
+            rect.set(size, 0, size + ELEVATION_SHADOW, height);
         }
 
         @Override
-        public boolean isSwipeOpen(MotionEvent e1, MotionEvent e2, float velocityX, float velocityY) {
-            return (velocityX < -1 * SWIPE_THRESHOLD_VELOCITY && (e1.getRawX() - e2.getRawX()) > SWIPE_MIN_DISTANCE);
+        public Paint getShadowPaint() {
+            if(mShadowPaint == null){
+                mShadowPaint = new Paint();
+                mShadowPaint.setShader(new LinearGradient(0, 0, ELEVATION_SHADOW, 0, SHADOW_COLOR, 0, Shader.TileMode.CLAMP));
+            }
+            return mShadowPaint;
+        }
+
+        @Override
+        public int getNestedScrollAxis() {
+            return ViewCompat.SCROLL_AXIS_HORIZONTAL;
+        }
+
+        @Override
+        public int getOpeningScrollDelta(int dx, int dy) {
+            return DrawerDragCore.openingScrollDelta(dx, DrawerDragCore.SIGN_POSITIVE);
+        }
+
+        @Override
+        public boolean canScroll(View view, int openingDistance) {
+            return ViewCompat.canScrollHorizontally(view, openingDistance > 0 ? -1 : 1);
+        }
+    }
+    private class RightAlignmentStrategy implements AlignmentStrategy{
+        private Paint mShadowPaint;
+
+        @Override
+        public float getOpeningVelocity(VelocityTracker velocityTracker, int pointerId) {
+            return DrawerDragCore.openingVelocity(velocityTracker.getXVelocity(pointerId), DrawerDragCore.SIGN_NEGATIVE);
         }
 
         @Override
@@ -844,13 +2885,13 @@ public class AndroidDrawerSheet extends FrameLayout {
         }
 
         @Override
-        public int calculateRawSize(View v, MotionEvent event) {
-            return v.getRootView().getWidth()-(int)event.getRawX();
+        public void setTranslation(View view, int hiddenSize) {
+            ViewCompat.setTranslationX(view, hiddenSize);
         }
 
         @Override
-        public int calculateTouchPositionDifference(View v, MotionEvent event) {
-            return getSize(v.getLayoutParams()) - calculateRawSize(v, event);
+        public int calculateRawSize(MotionEvent event, int pointerIndex) {
+            return DrawerDragCore.rawSize(event.getX(pointerIndex) + mWindowLocation[0], mRootWidth, DrawerDragCore.SIGN_NEGATIVE);
         }
 
         @Override
@@ -861,10 +2902,64 @@ public class AndroidDrawerSheet extends FrameLayout {
                 ((LayoutParams) getLayoutParams()).gravity= Gravity.RIGHT;
             }
         }
+
+        @Override
+        public void clearOuterAlignment() {
+            if(getLayoutParams() instanceof RelativeLayout.LayoutParams){
+                ((RelativeLayout.LayoutParams) getLayoutParams()).addRule(RelativeLayout.ALIGN_PARENT_RIGHT, 0);
+            }
+        }
         @Override
-        public void setShadowMargins(RelativeLayout.LayoutParams layoutParams) {
+        public void setShadowMargins(MarginLayoutParams layoutParams) {
             layoutParams.setMargins(ELEVATION_SHADOW, 0, 0, 0);
         }
+
+        @Override
+        public void layoutContent(View view, int width, int height) {
+            MarginLayoutParams layoutParams = (MarginLayoutParams) view.getLayoutParams();
+            int childRight = width - getPaddingRight() - layoutParams.rightMargin;
+            int childTop = getPaddingTop() + layoutParams.topMargin;
+            view.layout(childRight - view.getMeasuredWidth(), childTop, childRight, childTop + view.getMeasuredHeight());
+        }
+
+        @Override
+        public void getScrimBounds(Rect rect, int width, int height, int size) {
+            rect.set(0, 0, width - size, height);
+        }
+
+        @Override
+        public void getDrawerBounds(Rect rect, int width, int height, int size) {
+            rect.set(width - size, 0, width, height);
+        }
+
+        @Override
+        public void getShadowBounds(Rect rect, int width, int height, int size) {
+            rect.set(width - size - ELEVATION_SHADOW, 0, width - size, height);
+        }
+
+        @Override
+        public Paint getShadowPaint() {
+            if(mShadowPaint == null){
+                mShadowPaint = new Paint();
+                mShadowPaint.setShader(new LinearGradient(ELEVATION_SHADOW, 0, 0, 0, SHADOW_COLOR, 0, Shader.TileMode.CLAMP));
+            }
+            return mShadowPaint;
+        }
+
+        @Override
+        public int getNestedScrollAxis() {
+            return ViewCompat.SCROLL_AXIS_HORIZONTAL;
+        }
+
+        @Override
+        public int getOpeningScrollDelta(int dx, int dy) {
+            return DrawerDragCore.openingScrollDelta(dx, DrawerDragCore.SIGN_NEGATIVE);
+        }
+
+        @Override
+        public boolean canScroll(View view, int openingDistance) {
+            return ViewCompat.canScrollHorizontally(view, openingDistance > 0 ? 1 : -1);
+        }
     }
 
 
@@ -882,6 +2977,16 @@ public class AndroidDrawerSheet extends FrameLayout {
         savedState.minOpen = this.mMinimumOpeningSize;
         savedState.stickyDrag = this.mStickyDrag;
 
+        // A settling drawer is saved at the position where it comes to rest.
+        int size = mSettleAnimation.isRunning() ? mSettleAnimation.mTargetSize : mSize;
+        int range = mFullSize - mOffset;
+        if(range > 0){
+            savedState.progress = Math.max(0f, Math.min(1f, (size - mOffset) / (float) range));
+        }else{
+            savedState.progress = mDrawerState == DRAWER_STATE_OPEN ? 1f : 0f;
+        }
+        savedState.detent = Math.max(-1, Arrays.binarySearch(getDetentTable(), size));
+
         return savedState;
     }
 
@@ -897,12 +3002,19 @@ public class AndroidDrawerSheet extends FrameLayout {
         super.onRestoreInstanceState(savedState.getSuperState());
 
         this.mDrawerState = savedState.drawerState;
-        this.mAlignment = savedState.alignment;
-        this.mInvisibleOffset = savedState.invisibleOffset;
-        this.mOffset = savedState.offset;
         this.mMinimumClosingSize = savedState.minClose;
         this.mMinimumOpeningSize = savedState.minOpen;
         this.mStickyDrag = savedState.stickyDrag;
+        // Rebuilds the alignment strategy and the layout parameters before the first measure. The listeners are notified by finishRestore once
+        // the restored size is known.
+        applyEdit(savedState.alignment, savedState.offset, savedState.invisibleOffset, false);
+        if(mDrawerState == DRAWER_STATE_OPEN){
+            inflateContent();
+            mRestoredProgress = savedState.progress;
+            mRestoredDetent = savedState.detent;
+            requestLayout();
+        }
+        updateContentVisibility();
     }
     static class SavedState extends BaseSavedState{
         int drawerState;
@@ -912,6 +3024,8 @@ public class AndroidDrawerSheet extends FrameLayout {
         int minClose;
         int minOpen;
         boolean stickyDrag;
+        float progress;
+        int detent = -1;
 
         public SavedState(Parcel source){
             super(source);
@@ -922,6 +3036,8 @@ public class AndroidDrawerSheet extends FrameLayout {
             this.minClose = source.readInt();
             this.minOpen = source.readInt();
             this.stickyDrag = source.readByte()!=0;
+            this.progress = source.readFloat();
+            this.detent = source.readInt();
         }
 
         public SavedState(Parcelable superState) {
@@ -938,6 +3054,8 @@ public class AndroidDrawerSheet extends FrameLayout {
             out.writeInt(this.minClose);
             out.writeInt(this.minOpen);
             out.writeByte((byte)(this.stickyDrag?1:0));
+            out.writeFloat(this.progress);
+            out.writeInt(this.detent);
         }
         public static final Parcelable.Creator<SavedState> CREATOR
                 = new Parcelable.Creator<SavedState>() {
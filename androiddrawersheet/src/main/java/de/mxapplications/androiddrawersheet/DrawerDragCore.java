@@ -0,0 +1,230 @@
+package de.mxapplications.androiddrawersheet;
+
+/**
+ * The drag and snap math of the {@link AndroidDrawerSheet} without any Android dependencies. All sizes are measured along the axis of the drawer
+ * from its aligned edge, so the math is the same for all alignments once a touch position has been converted to a raw size.
+ * It only works with primitive values and does not allocate, so it can be tested and benchmarked on a plain JVM.
+ */
+final class DrawerDragCore {
+    /***
+     * The size of the drawer grows with the coordinate, i.e. the drawer is aligned at the top or at the left.
+     */
+    static final int SIGN_POSITIVE = 1;
+    /***
+     * The size of the drawer shrinks with the coordinate, i.e. the drawer is aligned at the bottom or at the right.
+     */
+    static final int SIGN_NEGATIVE = -1;
+
+    private final int mTouchSlop;
+    private final int mMinimumFlingVelocity;
+    private final float mProjectionDeceleration;
+
+    private int mDownRawSize;
+    private int mTouchPositionDifference;
+
+    /***
+     * Constructs a DrawerDragCore.
+     * @param touchSlop The distance in pixels a touch has to move before a drag starts.
+     * @param minimumFlingVelocity The minimum velocity in pixels per second of a fling. Slower releases do not move the drawer any further.
+     * @param projectionDeceleration The deceleration in pixels per second squared that is used to project where a released drawer would come to rest.
+     */
+    DrawerDragCore(int touchSlop, int minimumFlingVelocity, float projectionDeceleration){
+        mTouchSlop = touchSlop;
+        mMinimumFlingVelocity = minimumFlingVelocity;
+        mProjectionDeceleration = projectionDeceleration;
+    }
+
+    /***
+     * Converts a screen coordinate along the axis of the drawer to the raw size, i.e. the size the drawer would have if its edge was at the coordinate.
+     * @param coordinate The screen coordinate in pixels.
+     * @param rootExtent The size of the root view along the axis of the drawer in pixels.
+     * @param sign SIGN_POSITIVE or SIGN_NEGATIVE.
+     * @return The raw size in pixels.
+     */
+    static int rawSize(float coordinate, int rootExtent, int sign){
+        return sign == SIGN_POSITIVE ? (int) coordinate : rootExtent - (int) coordinate;
+    }
+
+    /***
+     * Converts a velocity along the axis of the drawer to a velocity that is positive in opening direction.
+     * @param velocity The velocity in pixels per second.
+     * @param sign SIGN_POSITIVE or SIGN_NEGATIVE.
+     * @return The velocity in pixels per second, positive in opening direction.
+     */
+    static float openingVelocity(float velocity, int sign){
+        return sign * velocity;
+    }
+
+    /***
+     * Converts a nested scroll delta along the axis of the drawer to a delta that is positive in opening direction.
+     * Scrolling content towards its end moves the drawer in opening direction.
+     * @param delta The scroll delta in pixels.
+     * @param sign SIGN_POSITIVE or SIGN_NEGATIVE.
+     * @return The delta in pixels, positive in opening direction.
+     */
+    static int openingScrollDelta(int delta, int sign){
+        return -sign * delta;
+    }
+
+    /***
+     * Clamps a size between the closed and the open size.
+     * @param size The size in pixels.
+     * @param offset The closed size in pixels.
+     * @param fullSize The open size in pixels.
+     * @return The clamped size in pixels.
+     */
+    static int clamp(int size, int offset, int fullSize){
+        return Math.min(Math.max(size, offset), fullSize);
+    }
+
+    /***
+     * Starts tracking a touch.
+     * @param rawSize The raw size at the touch position.
+     */
+    void down(int rawSize){
+        mDownRawSize = rawSize;
+    }
+
+    /***
+     * Returns true if the touch has moved further than the touch slop since it went down.
+     * @param rawSize The raw size at the current touch position.
+     * @return True if a drag can start.
+     */
+    boolean exceedsTouchSlop(int rawSize){
+        return Math.abs(rawSize - mDownRawSize) > mTouchSlop;
+    }
+
+    /***
+     * Returns how far the touch has moved since it went down, positive in opening direction.
+     * @param rawSize The raw size at the current touch position.
+     * @return The distance in pixels.
+     */
+    int dragDistance(int rawSize){
+        return rawSize - mDownRawSize;
+    }
+
+    /***
+     * Starts dragging the drawer from its current size, so it does not jump to the touch position.
+     * @param rawSize The raw size at the current touch position.
+     * @param size The current size of the drawer in pixels.
+     */
+    void startDrag(int rawSize, int size){
+        mTouchPositionDifference = size - rawSize;
+    }
+
+    /***
+     * Returns the size of the dragged drawer at a touch position.
+     * @param rawSize The raw size at the touch position.
+     * @param offset The closed size in pixels.
+     * @param fullSize The open size in pixels.
+     * @return The size in pixels, clamped between the closed and the open size.
+     */
+    int dragSize(int rawSize, int offset, int fullSize){
+        return clamp(rawSize + mTouchPositionDifference, offset, fullSize);
+    }
+
+    /***
+     * Returns the unclamped size of the dragged drawer at the touch position where it is released.
+     * @param rawSize The raw size at the touch position.
+     * @return The size in pixels.
+     */
+    int releaseSize(int rawSize){
+        return rawSize + mTouchPositionDifference;
+    }
+
+    /***
+     * Returns the release velocity, or 0 if the drawer is released slower than a fling.
+     * @param velocity The velocity in pixels per second, positive in opening direction.
+     * @return The effective velocity in pixels per second.
+     */
+    float effectiveVelocity(float velocity){
+        return Math.abs(velocity) < mMinimumFlingVelocity ? 0 : velocity;
+    }
+
+    /***
+     * Projects where a released drawer would come to rest if it decelerated from its release velocity.
+     * @param releaseSize The size of the drawer at the release in pixels.
+     * @param velocity The effective release velocity in pixels per second, positive in opening direction.
+     * @param offset The closed size in pixels.
+     * @param fullSize The open size in pixels.
+     * @return The projected size in pixels, which can be outside of the closed and the open size.
+     */
+    int project(int releaseSize, float velocity, int offset, int fullSize){
+        return clamp(releaseSize, offset, fullSize) + (int)(Math.signum(velocity) * velocity * velocity / (2 * mProjectionDeceleration));
+    }
+
+    /***
+     * Snaps a projected size to the closest detent or, if there are no detents, applies sticky drag, minimum closing size, and minimum opening size.
+     * @param size The projected size in pixels.
+     * @param offset The closed size in pixels.
+     * @param fullSize The open size in pixels.
+     * @param detentTable The sorted sizes of all detents including the closed and the open size, or null if there are no detents in between.
+     * @param minimumClosingSize The minimum closing size in pixels.
+     * @param minimumOpeningSize The minimum opening size in pixels.
+     * @param stickyDrag True if sticky drag is enabled.
+     * @return The size in pixels at which the drawer comes to rest, clamped between the closed and the open size.
+     */
+    static int snap(int size, int offset, int fullSize, int[] detentTable, int minimumClosingSize, int minimumOpeningSize, boolean stickyDrag){
+        if(detentTable != null){
+            size = findClosestDetent(detentTable, size);
+        }else {
+            if ((size <= minimumClosingSize) || (stickyDrag && size < fullSize / 2)) {
+                size = offset;
+            }
+            if ((size >= fullSize - minimumOpeningSize) || (stickyDrag && size >= fullSize / 2)) {
+                size = fullSize;
+            }
+        }
+        return clamp(size, offset, fullSize);
+    }
+
+    /***
+     * Finds the detent that is closest to the given size with a binary search.
+     * @param table The sorted sizes of all detents in pixels.
+     * @param size The size in pixels.
+     * @return The size of the closest detent in pixels.
+     */
+    static int findClosestDetent(int[] table, int size){
+        int low = 0;
+        int high = table.length - 1;
+        while(low <= high){
+            int middle = (low + high) >>> 1;
+            if(table[middle] < size){
+                low = middle + 1;
+            }else if(table[middle] > size){
+                high = middle - 1;
+            }else{
+                return size;
+            }
+        }
+        if(low == 0){
+            return table[0];
+        }
+        if(low == table.length){
+            return table[table.length - 1];
+        }
+        int lower = table[low - 1];
+        int upper = table[low];
+        return size - lower < upper - size ? lower : upper;
+    }
+
+    /***
+     * Computes the duration of the settle animation. If the drawer is released with a velocity towards the target,
+     * the animation starts with that velocity, otherwise the duration is proportional to the remaining distance.
+     * @param distance The remaining distance in pixels, positive in opening direction.
+     * @param velocity The velocity in pixels per second, positive in opening direction.
+     * @param settleDuration The duration in milliseconds of a settle over the whole range.
+     * @param range The distance in pixels between the closed and the open size.
+     * @return The duration in milliseconds.
+     */
+    static int settleDuration(int distance, float velocity, int settleDuration, int range){
+        if(distance == 0 || settleDuration == 0){
+            return 0;
+        }
+        if(velocity != 0 && Math.signum(velocity) == Math.signum(distance)){
+            // The settle interpolator decelerates, so it starts at about twice its average speed.
+            return Math.min(settleDuration, (int)(2000f * Math.abs(distance) / Math.abs(velocity)));
+        }
+        return Math.min(settleDuration, settleDuration * Math.abs(distance) / Math.max(1, range));
+    }
+}
@@ -0,0 +1,293 @@
+package de.mxapplications.androiddrawersheet;
+
+/**
+ * Collects performance metrics of an {@link AndroidDrawerSheet}. All methods have to be called on the main thread.
+ */
+public class DrawerMetrics {
+    private static final long DEFAULT_FRAME_BUDGET_NANOS = 16666667L;
+
+    private long mFrameBudgetNanos = DEFAULT_FRAME_BUDGET_NANOS;
+    private long mGestureCount = 0;
+    private long mCycleCount = 0;
+    private boolean mInGesture = false;
+    private boolean mInCycle = false;
+    private final Counters mTotal = new Counters();
+    private final Counters mGesture = new Counters();
+    private final Counters mLastGesture = new Counters();
+    private final Counters mCycle = new Counters();
+    private final Counters mLastCycle = new Counters();
+
+    /***
+     * Returns the frame budget in nanoseconds. A frame that is applied later than one and a half frame budgets after it was requested counts as over budget.
+     * @return The frame budget in nanoseconds.
+     */
+    public long getFrameBudgetNanos() {
+        return mFrameBudgetNanos;
+    }
+
+    /***
+     * Sets the frame budget in nanoseconds, which is 16666667 (60 frames per second) by default.
+     * @param frameBudgetNanos The frame budget in nanoseconds.
+     * @return The DrawerMetrics-object.
+     */
+    public DrawerMetrics setFrameBudgetNanos(long frameBudgetNanos) {
+        this.mFrameBudgetNanos = frameBudgetNanos;
+        return this;
+    }
+
+    /***
+     * Copies the current metrics into the given snapshot, so they can be sampled without allocating.
+     * @param snapshot The snapshot that receives the metrics.
+     * @return The snapshot.
+     */
+    public Snapshot snapshot(Snapshot snapshot){
+        snapshot.mGestureCount = mGestureCount;
+        snapshot.mCycleCount = mCycleCount;
+        snapshot.mTotal.set(mTotal);
+        snapshot.mLastGesture.set(mLastGesture);
+        snapshot.mLastCycle.set(mLastCycle);
+        return snapshot;
+    }
+
+    /***
+     * Returns a new snapshot of the current metrics.
+     * @return The snapshot.
+     */
+    public Snapshot snapshot(){
+        return snapshot(new Snapshot());
+    }
+
+    /***
+     * Resets all metrics. A gesture or cycle that is in progress is counted from now on.
+     */
+    public void reset(){
+        mGestureCount = 0;
+        mCycleCount = 0;
+        mTotal.clear();
+        mGesture.clear();
+        mLastGesture.clear();
+        mCycle.clear();
+        mLastCycle.clear();
+    }
+
+    void beginGesture(){
+        // A gesture whose end has not been seen by the drawer, e.g. because a child has disallowed intercepting, ends with the next one.
+        endGesture();
+        mInGesture = true;
+        mGesture.clear();
+    }
+
+    void endGesture(){
+        if(mInGesture){
+            mInGesture = false;
+            mGestureCount++;
+            mLastGesture.set(mGesture);
+        }
+    }
+
+    void beginCycle(){
+        if(!mInCycle){
+            mInCycle = true;
+            mCycle.clear();
+        }
+    }
+
+    void endCycle(){
+        if(mInCycle){
+            mInCycle = false;
+            mCycleCount++;
+            mLastCycle.set(mCycle);
+        }
+    }
+
+    /***
+     * Counts a frame in which the drawer has been moved.
+     * @param latencyNanos The time in nanoseconds between the request of the frame and the frame itself.
+     */
+    void onFrame(long latencyNanos){
+        boolean overBudget = latencyNanos > mFrameBudgetNanos + mFrameBudgetNanos / 2;
+        mTotal.addFrame(overBudget);
+        if(mInGesture){
+            mGesture.addFrame(overBudget);
+        }
+        if(mInCycle){
+            mCycle.addFrame(overBudget);
+        }
+    }
+
+    void onMeasure(){
+        mTotal.mMeasurePasses++;
+        if(mInGesture){
+            mGesture.mMeasurePasses++;
+        }
+        if(mInCycle){
+            mCycle.mMeasurePasses++;
+        }
+    }
+
+    void onLayout(){
+        mTotal.mLayoutPasses++;
+        if(mInGesture){
+            mGesture.mLayoutPasses++;
+        }
+        if(mInCycle){
+            mCycle.mLayoutPasses++;
+        }
+    }
+
+    void onTouch(long nanos){
+        mTotal.mTouchNanos += nanos;
+        if(mInGesture){
+            mGesture.mTouchNanos += nanos;
+        }
+        if(mInCycle){
+            mCycle.mTouchNanos += nanos;
+        }
+    }
+
+    void onDispatch(long nanos){
+        mTotal.mDispatchNanos += nanos;
+        if(mInGesture){
+            mGesture.mDispatchNanos += nanos;
+        }
+        if(mInCycle){
+            mCycle.mDispatchNanos += nanos;
+        }
+    }
+
+    /***
+     * The metrics of one scope, i.e. in total, of a gesture, or of an open/close cycle.
+     */
+    public static class Counters{
+        private long mFrames;
+        private long mFramesOverBudget;
+        private long mMeasurePasses;
+        private long mLayoutPasses;
+        private long mTouchNanos;
+        private long mDispatchNanos;
+
+        /***
+         * Returns the number of frames in which the drawer has been moved.
+         * @return The number of frames.
+         */
+        public long getFrames() {
+            return mFrames;
+        }
+
+        /***
+         * Returns the number of frames that have been applied later than one and a half frame budgets after they were requested.
+         * @return The number of frames over budget.
+         */
+        public long getFramesOverBudget() {
+            return mFramesOverBudget;
+        }
+
+        /***
+         * Returns the number of measure passes of the drawer content.
+         * @return The number of measure passes.
+         */
+        public long getMeasurePasses() {
+            return mMeasurePasses;
+        }
+
+        /***
+         * Returns the number of layout passes of the drawer content.
+         * @return The number of layout passes.
+         */
+        public long getLayoutPasses() {
+            return mLayoutPasses;
+        }
+
+        /***
+         * Returns the time in nanoseconds that the drawer has spent processing touch events.
+         * @return The time in nanoseconds.
+         */
+        public long getTouchNanos() {
+            return mTouchNanos;
+        }
+
+        /***
+         * Returns the time in nanoseconds that the drawer has spent notifying its listeners.
+         * @return The time in nanoseconds.
+         */
+        public long getDispatchNanos() {
+            return mDispatchNanos;
+        }
+
+        private void addFrame(boolean overBudget){
+            mFrames++;
+            if(overBudget){
+                mFramesOverBudget++;
+            }
+        }
+
+        private void set(Counters counters){
+            mFrames = counters.mFrames;
+            mFramesOverBudget = counters.mFramesOverBudget;
+            mMeasurePasses = counters.mMeasurePasses;
+            mLayoutPasses = counters.mLayoutPasses;
+            mTouchNanos = counters.mTouchNanos;
+            mDispatchNanos = counters.mDispatchNanos;
+        }
+
+        private void clear(){
+            mFrames = 0;
+            mFramesOverBudget = 0;
+            mMeasurePasses = 0;
+            mLayoutPasses = 0;
+            mTouchNanos = 0;
+            mDispatchNanos = 0;
+        }
+    }
+
+    /***
+     * A copy of the metrics at one point in time.
+     */
+    public static class Snapshot{
+        private long mGestureCount;
+        private long mCycleCount;
+        private final Counters mTotal = new Counters();
+        private final Counters mLastGesture = new Counters();
+        private final Counters mLastCycle = new Counters();
+
+        /***
+         * Returns the number of completed gestures, i.e. touch or nested scroll gestures that have been tracked by the drawer.
+         * @return The number of gestures.
+         */
+        public long getGestureCount() {
+            return mGestureCount;
+        }
+
+        /***
+         * Returns the number of completed open/close cycles, i.e. how often the drawer has left its closed position and come back to rest there.
+         * @return The number of cycles.
+         */
+        public long getCycleCount() {
+            return mCycleCount;
+        }
+
+        /***
+         * Returns the metrics since the metrics were set or reset.
+         * @return The total metrics.
+         */
+        public Counters getTotal() {
+            return mTotal;
+        }
+
+        /***
+         * Returns the metrics of the last completed gesture.
+         * @return The metrics of the last gesture.
+         */
+        public Counters getLastGesture() {
+            return mLastGesture;
+        }
+
+        /***
+         * Returns the metrics of the last completed open/close cycle.
+         * @return The metrics of the last cycle.
+         */
+        public Counters getLastCycle() {
+            return mLastCycle;
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package de.mxapplications.androiddrawersheet;
+
+import android.support.v4.view.ViewCompat;
+import android.view.VelocityTracker;
+
+import java.util.Arrays;
+
+/**
+ * Coordinates several {@link AndroidDrawerSheet}s in one window, which share one animation frame callback and one velocity tracker.
+ */
+public class DrawerSheetCoordinator {
+    /***
+     * The drawers are opened and closed independently of each other.
+     */
+    public static final int POLICY_INDEPENDENT = 0;
+    /***
+     * Only one drawer can be open at a time. Opening a drawer closes all other drawers.
+     */
+    public static final int POLICY_SINGLE_OPEN = 1;
+    /***
+     * Several drawers can be open at a time. The drawer that was opened last is drawn on top and is the first one that is closed by {@link #closeTopDrawer(boolean)}.
+     */
+    public static final int POLICY_STACK = 2;
+
+    private int mPolicy;
+    private AndroidDrawerSheet[] mDrawers = new AndroidDrawerSheet[0];
+    private AndroidDrawerSheet[] mOpenDrawers = new AndroidDrawerSheet[0];
+    private VelocityTracker mVelocityTracker;
+    private AndroidDrawerSheet mVelocityTrackerOwner;
+    private boolean mFrameScheduled = false;
+    private AndroidDrawerSheet mFrameHost;
+    private final Runnable mFrameCallback = new Runnable() {
+        @Override
+        public void run() {
+            mFrameScheduled = false;
+            mFrameHost = null;
+            AndroidDrawerSheet[] drawers = mDrawers;
+            for(int i = 0; i < drawers.length; i++){
+                drawers[i].doFrame();
+            }
+        }
+    };
+
+    /***
+     * Constructs a DrawerSheetCoordinator with the policy POLICY_SINGLE_OPEN.
+     */
+    public DrawerSheetCoordinator(){
+        this(POLICY_SINGLE_OPEN);
+    }
+
+    /***
+     * Constructs a DrawerSheetCoordinator.
+     * @param policy The policy which is one of POLICY_INDEPENDENT, POLICY_SINGLE_OPEN, or POLICY_STACK.
+     */
+    public DrawerSheetCoordinator(int policy){
+        mPolicy = policy;
+    }
+
+    /***
+     * Registers a drawer with this coordinator. A drawer can only be registered with one coordinator at a time.
+     * @param drawer The drawer.
+     * @return The DrawerSheetCoordinator-object.
+     */
+    public DrawerSheetCoordinator register(AndroidDrawerSheet drawer){
+        if(drawer.getCoordinator() == this){
+            return this;
+        }
+        if(drawer.getCoordinator() != null){
+            drawer.getCoordinator().unregister(drawer);
+        }
+        mDrawers = add(mDrawers, drawer);
+        if(drawer.isDrawerOpen()){
+            mOpenDrawers = add(mOpenDrawers, drawer);
+        }
+        drawer.setCoordinator(this);
+        return this;
+    }
+
+    /***
+     * Unregisters a drawer from this coordinator.
+     * @param drawer The drawer.
+     * @return The DrawerSheetCoordinator-object.
+     */
+    public DrawerSheetCoordinator unregister(AndroidDrawerSheet drawer){
+        if(drawer.getCoordinator() != this){
+            return this;
+        }
+        mDrawers = remove(mDrawers, drawer);
+        mOpenDrawers = remove(mOpenDrawers, drawer);
+        onDrawerDetached(drawer);
+        // A drawer that is tracking a touch keeps the shared velocity tracker until the touch ends and releases it to this coordinator then.
+        drawer.setCoordinator(null);
+        return this;
+    }
+
+    /***
+     * Returns the policy which is one of POLICY_INDEPENDENT, POLICY_SINGLE_OPEN, or POLICY_STACK.
+     * @return The policy.
+     */
+    public int getPolicy() {
+        return mPolicy;
+    }
+
+    /***
+     * Sets the policy which is one of POLICY_INDEPENDENT, POLICY_SINGLE_OPEN, or POLICY_STACK.
+     * @param policy The policy.
+     * @return The DrawerSheetCoordinator-object.
+     */
+    public DrawerSheetCoordinator setPolicy(int policy) {
+        this.mPolicy = policy;
+        return this;
+    }
+
+    /***
+     * Closes the drawer that was opened last.
+     * @param animate If true, the drawer is animated to its closed position, if false, it is closed immediately.
+     * @return True if a drawer was closed, false if no drawer was open.
+     */
+    public boolean closeTopDrawer(boolean animate){
+        if(mOpenDrawers.length == 0){
+            return false;
+        }
+        mOpenDrawers[mOpenDrawers.length - 1].closeDrawer(animate);
+        return true;
+    }
+
+    /***
+     * Schedules the shared frame callback with the next animation frame.
+     * @param drawer The drawer that needs the frame.
+     */
+    void scheduleFrame(AndroidDrawerSheet drawer){
+        if(!mFrameScheduled){
+            mFrameScheduled = true;
+            mFrameHost = drawer;
+            ViewCompat.postOnAnimation(drawer, mFrameCallback);
+        }
+    }
+
+    /***
+     * Moves the shared frame callback to another attached drawer when a drawer is detached or unregistered.
+     * @param drawer The drawer.
+     */
+    void onDrawerDetached(AndroidDrawerSheet drawer){
+        if(!mFrameScheduled || mFrameHost != drawer){
+            return;
+        }
+        drawer.removeCallbacks(mFrameCallback);
+        mFrameScheduled = false;
+        mFrameHost = null;
+        AndroidDrawerSheet[] drawers = mDrawers;
+        for(int i = 0; i < drawers.length; i++){
+            if(drawers[i] != drawer && drawers[i].getWindowToken() != null){
+                scheduleFrame(drawers[i]);
+                return;
+            }
+        }
+    }
+
+    /***
+     * Returns the shared velocity tracker to a drawer that starts tracking a touch.
+     * @param drawer The drawer.
+     * @return The cleared velocity tracker, or null if another drawer is tracking a touch.
+     */
+    VelocityTracker obtainVelocityTracker(AndroidDrawerSheet drawer){
+        if(mVelocityTrackerOwner != null && mVelocityTrackerOwner != drawer){
+            return null;
+        }
+        if(mVelocityTracker == null){
+            mVelocityTracker = VelocityTracker.obtain();
+        }else{
+            mVelocityTracker.clear();
+        }
+        mVelocityTrackerOwner = drawer;
+        return mVelocityTracker;
+    }
+
+    /***
+     * Releases the shared velocity tracker when a drawer has finished tracking a touch.
+     * @param drawer The drawer.
+     */
+    void releaseVelocityTracker(AndroidDrawerSheet drawer){
+        if(mVelocityTrackerOwner == drawer){
+            mVelocityTrackerOwner = null;
+        }
+    }
+
+    /***
+     * Applies the policy when a drawer starts opening.
+     * @param drawer The drawer.
+     * @param animate True if the drawer is animated.
+     */
+    void onDrawerOpening(AndroidDrawerSheet drawer, boolean animate){
+        mOpenDrawers = add(remove(mOpenDrawers, drawer), drawer);
+        if(mPolicy == POLICY_SINGLE_OPEN){
+            AndroidDrawerSheet[] openDrawers = mOpenDrawers;
+            for(int i = 0; i < openDrawers.length; i++){
+                if(openDrawers[i] != drawer){
+                    openDrawers[i].closeDrawer(animate);
+                }
+            }
+        }else if(mPolicy == POLICY_STACK && mOpenDrawers.length > 1){
+            drawer.bringToFront();
+        }
+    }
+
+    /***
+     * Updates the open drawers when a drawer starts closing.
+     * @param drawer The drawer.
+     */
+    void onDrawerClosing(AndroidDrawerSheet drawer){
+        mOpenDrawers = remove(mOpenDrawers, drawer);
+    }
+
+    private static AndroidDrawerSheet[] add(AndroidDrawerSheet[] drawers, AndroidDrawerSheet drawer){
+        AndroidDrawerSheet[] result = Arrays.copyOf(drawers, drawers.length + 1);
+        result[drawers.length] = drawer;
+        return result;
+    }
+
+    private static AndroidDrawerSheet[] remove(AndroidDrawerSheet[] drawers, AndroidDrawerSheet drawer){
+        for(int i = 0; i < drawers.length; i++){
+            if(drawers[i] == drawer){
+                AndroidDrawerSheet[] result = new AndroidDrawerSheet[drawers.length - 1];
+                System.arraycopy(drawers, 0, result, 0, i);
+                System.arraycopy(drawers, i + 1, result, i, drawers.length - i - 1);
+                return result;
+            }
+        }
+        return drawers;
+    }
+}
@@ -0,0 +1,143 @@
+package de.mxapplications.androiddrawersheet;
+
+import android.os.Handler;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Delivers the events of an {@link AndroidDrawerSheet.OnResizeListener} or an {@link AndroidDrawerSheet.OnInteractionListener} through an
+ * {@link Executor} instead of calling the listener inline on the main thread. It is added to the listener arrays of the drawer like any other
+ * listener, so the drawer only pays for submitting a task.
+ * <p>
+ * Delivery rules:
+ * <ul>
+ * <li>Interaction events are never dropped. They are submitted in the order in which they occur.</li>
+ * <li>Resize events are conflated. At most one resize delivery is pending at a time, and it delivers the latest size when it runs,
+ * so a slow consumer never builds up a backlog. The final size is always delivered.</li>
+ * <li>The deliveries of one registration keep their order only if the executor runs its tasks one after another, e.g. a Handler or a
+ * single-thread executor. A conflated size can be newer than an interaction event that is delivered after it.</li>
+ * <li>There is no order between different registrations, or between queued and inline listeners.</li>
+ * <li>Once the listener is removed from the drawer, no further events are delivered, apart from a delivery that is already running.</li>
+ * </ul>
+ * The tasks are preallocated, so dispatching an event does not allocate, apart from what the executor itself allocates.
+ */
+final class QueuedDrawerListener implements AndroidDrawerSheet.OnResizeListener, AndroidDrawerSheet.OnInteractionListener {
+    private final Object mListener;
+    private final Executor mExecutor;
+    private volatile boolean mCancelled = false;
+    private volatile int mLatestSize;
+    private final AtomicBoolean mResizePending = new AtomicBoolean(false);
+
+    private final Runnable mResizeTask = new Runnable() {
+        @Override
+        public void run() {
+            // The flag is cleared before the size is read, so a size that arrives meanwhile is either read here or submitted again.
+            mResizePending.set(false);
+            int size = mLatestSize;
+            if(!mCancelled){
+                ((AndroidDrawerSheet.OnResizeListener) mListener).drawerResized(size);
+            }
+        }
+    };
+    private final Runnable mBeforeClosedTask = new Runnable() {
+        @Override
+        public void run() {
+            if(!mCancelled){
+                ((AndroidDrawerSheet.OnInteractionListener) mListener).beforeDrawerClosed();
+            }
+        }
+    };
+    private final Runnable mBeforeOpenedTask = new Runnable() {
+        @Override
+        public void run() {
+            if(!mCancelled){
+                ((AndroidDrawerSheet.OnInteractionListener) mListener).beforeDrawerOpened();
+            }
+        }
+    };
+    private final Runnable mAfterClosedTask = new Runnable() {
+        @Override
+        public void run() {
+            if(!mCancelled){
+                ((AndroidDrawerSheet.OnInteractionListener) mListener).afterDrawerClosed();
+            }
+        }
+    };
+    private final Runnable mAfterOpenedTask = new Runnable() {
+        @Override
+        public void run() {
+            if(!mCancelled){
+                ((AndroidDrawerSheet.OnInteractionListener) mListener).afterDrawerOpened();
+            }
+        }
+    };
+
+    /***
+     * Constructs a QueuedDrawerListener.
+     * @param listener The OnResizeListener or OnInteractionListener that receives the events.
+     * @param executor The executor that runs the deliveries.
+     */
+    QueuedDrawerListener(Object listener, Executor executor){
+        mListener = listener;
+        mExecutor = executor;
+    }
+
+    /***
+     * Returns an executor that posts its tasks to a Handler, so they run one after another on the thread of the Handler.
+     * @param handler The handler.
+     * @return The executor.
+     */
+    static Executor executorOf(final Handler handler){
+        return new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                handler.post(command);
+            }
+        };
+    }
+
+    /***
+     * Returns true if this delivers the events of the given listener.
+     * @param listener The listener.
+     * @return True if the listener is wrapped by this.
+     */
+    boolean wraps(Object listener){
+        return mListener.equals(listener);
+    }
+
+    /***
+     * Stops delivering events, because the listener has been removed from the drawer.
+     */
+    void cancel(){
+        mCancelled = true;
+    }
+
+    @Override
+    public void drawerResized(int size) {
+        mLatestSize = size;
+        if(mResizePending.compareAndSet(false, true)){
+            mExecutor.execute(mResizeTask);
+        }
+    }
+
+    @Override
+    public void beforeDrawerClosed() {
+        mExecutor.execute(mBeforeClosedTask);
+    }
+
+    @Override
+    public void beforeDrawerOpened() {
+        mExecutor.execute(mBeforeOpenedTask);
+    }
+
+    @Override
+    public void afterDrawerClosed() {
+        mExecutor.execute(mAfterClosedTask);
+    }
+
+    @Override
+    public void afterDrawerOpened() {
+        mExecutor.execute(mAfterOpenedTask);
+    }
+}
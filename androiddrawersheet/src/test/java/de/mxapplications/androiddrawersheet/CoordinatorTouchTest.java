@@ -0,0 +1,72 @@
+package de.mxapplications.androiddrawersheet;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that a touch taken over by a child of one drawer does not block the other drawers of the coordinator.
+ */
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class CoordinatorTouchTest {
+    private static final int OFFSET = 48;
+    private static final int DRAG_DISTANCE = 500;
+    private static final int MOVES = 10;
+
+    @Test
+    public void childTakingOverATouchReleasesTheVelocityTracker() throws Exception {
+        DrawerTestHarness harness = new DrawerTestHarness();
+        AndroidDrawerSheet bottomDrawer = harness.createDrawer("bottom", 0);
+        bottomDrawer.addView(new DisallowingView(harness.getActivity()), ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT);
+        AndroidDrawerSheet topDrawer = harness.createDrawer("top", OFFSET);
+        topDrawer.addView(new View(harness.getActivity()), ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT);
+        FrameLayout container = new FrameLayout(harness.getActivity());
+        container.addView(bottomDrawer, ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT);
+        container.addView(topDrawer, ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT);
+        new DrawerSheetCoordinator(DrawerSheetCoordinator.POLICY_INDEPENDENT).register(bottomDrawer).register(topDrawer);
+        harness.setContentView(container);
+        bottomDrawer.openDrawer(false);
+        harness.advance(DrawerTestHarness.FRAME_MILLIS);
+
+        // The child of the bottom drawer takes over this touch, so the bottom drawer never sees its up event.
+        float[] point = DrawerTestHarness.pointIn(bottomDrawer, 0.5f, 0.75f);
+        long downTime = SystemClock.uptimeMillis();
+        harness.dispatch(downTime, MotionEvent.ACTION_DOWN, point[0], point[1]);
+        harness.advance(DrawerTestHarness.FRAME_MILLIS);
+        harness.dispatch(downTime, MotionEvent.ACTION_UP, point[0], point[1]);
+        harness.advance(DrawerTestHarness.FRAME_MILLIS);
+
+        float[] edge = DrawerTestHarness.pointIn(topDrawer, 0.5f, 0f);
+        harness.drag(edge[0], edge[1] + OFFSET / 2, 0, DRAG_DISTANCE, MOVES);
+
+        assertTrue("The top drawer could not be dragged", topDrawer.isDrawerOpen());
+    }
+
+    /***
+     * Content that handles every touch itself, like a horizontally scrolling list.
+     */
+    private static class DisallowingView extends View{
+        DisallowingView(Context context) {
+            super(context);
+        }
+
+        @Override
+        public boolean onTouchEvent(MotionEvent event) {
+            if(event.getActionMasked() == MotionEvent.ACTION_DOWN){
+                getParent().requestDisallowInterceptTouchEvent(true);
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package de.mxapplications.androiddrawersheet;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class DrawerDragCoreTest {
+    private static final int OFFSET = 100;
+    private static final int FULL_SIZE = 1000;
+
+    @Test
+    public void rawSize_dependsOnAlignment() throws Exception {
+        assertEquals(300, DrawerDragCore.rawSize(300.7f, 1200, DrawerDragCore.SIGN_POSITIVE));
+        assertEquals(900, DrawerDragCore.rawSize(300.7f, 1200, DrawerDragCore.SIGN_NEGATIVE));
+    }
+
+    @Test
+    public void dragSize_keepsTouchPositionDifferenceAndClamps() throws Exception {
+        DrawerDragCore dragCore = new DrawerDragCore(10, 50, 4000f);
+        dragCore.down(500);
+        assertFalse(dragCore.exceedsTouchSlop(505));
+        assertTrue(dragCore.exceedsTouchSlop(511));
+        assertEquals(11, dragCore.dragDistance(511));
+        assertEquals(-20, dragCore.dragDistance(480));
+        dragCore.startDrag(511, OFFSET);
+        assertEquals(OFFSET, dragCore.dragSize(511, OFFSET, FULL_SIZE));
+        assertEquals(OFFSET + 200, dragCore.dragSize(711, OFFSET, FULL_SIZE));
+        assertEquals(FULL_SIZE, dragCore.dragSize(5000, OFFSET, FULL_SIZE));
+        assertEquals(OFFSET, dragCore.dragSize(0, OFFSET, FULL_SIZE));
+        assertEquals(-411, dragCore.releaseSize(0));
+    }
+
+    @Test
+    public void release_slowerThanFlingIsNotProjected() throws Exception {
+        DrawerDragCore dragCore = new DrawerDragCore(10, 50, 4000f);
+        assertEquals(0f, dragCore.effectiveVelocity(49f), 0f);
+        assertEquals(-60f, dragCore.effectiveVelocity(-60f), 0f);
+        assertEquals(400, dragCore.project(400, 0f, OFFSET, FULL_SIZE));
+        assertEquals(400 + 125, dragCore.project(400, 1000f, OFFSET, FULL_SIZE));
+        assertEquals(400 - 125, dragCore.project(400, -1000f, OFFSET, FULL_SIZE));
+    }
+
+    @Test
+    public void snap_stickyDrag() throws Exception {
+        assertEquals(OFFSET, DrawerDragCore.snap(499, OFFSET, FULL_SIZE, null, 0, 0, true));
+        assertEquals(FULL_SIZE, DrawerDragCore.snap(500, OFFSET, FULL_SIZE, null, 0, 0, true));
+        assertEquals(FULL_SIZE, DrawerDragCore.snap(5000, OFFSET, FULL_SIZE, null, 0, 0, true));
+    }
+
+    @Test
+    public void snap_minimumSizes() throws Exception {
+        assertEquals(OFFSET, DrawerDragCore.snap(200, OFFSET, FULL_SIZE, null, 200, 200, false));
+        assertEquals(500, DrawerDragCore.snap(500, OFFSET, FULL_SIZE, null, 200, 200, false));
+        assertEquals(FULL_SIZE, DrawerDragCore.snap(800, OFFSET, FULL_SIZE, null, 200, 200, false));
+    }
+
+    @Test
+    public void snap_closestDetent() throws Exception {
+        int[] detentTable = new int[]{OFFSET, 300, 550, FULL_SIZE};
+        assertEquals(OFFSET, DrawerDragCore.snap(-50, OFFSET, FULL_SIZE, detentTable, 0, 0, true));
+        assertEquals(300, DrawerDragCore.snap(420, OFFSET, FULL_SIZE, detentTable, 0, 0, true));
+        assertEquals(550, DrawerDragCore.snap(430, OFFSET, FULL_SIZE, detentTable, 0, 0, true));
+        assertEquals(550, DrawerDragCore.snap(550, OFFSET, FULL_SIZE, detentTable, 0, 0, true));
+        assertEquals(FULL_SIZE, DrawerDragCore.snap(2000, OFFSET, FULL_SIZE, detentTable, 0, 0, true));
+    }
+
+    @Test
+    public void settleDuration_followsReleaseVelocity() throws Exception {
+        assertEquals(0, DrawerDragCore.settleDuration(0, 1000f, 250, FULL_SIZE - OFFSET));
+        assertEquals(100, DrawerDragCore.settleDuration(450, 0f, 200, FULL_SIZE - OFFSET));
+        assertEquals(100, DrawerDragCore.settleDuration(450, -9000f, 200, FULL_SIZE - OFFSET));
+        assertEquals(90, DrawerDragCore.settleDuration(450, 10000f, 200, FULL_SIZE - OFFSET));
+        assertEquals(200, DrawerDragCore.settleDuration(450, 10f, 200, FULL_SIZE - OFFSET));
+    }
+}
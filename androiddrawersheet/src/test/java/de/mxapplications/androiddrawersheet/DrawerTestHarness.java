@@ -0,0 +1,115 @@
+package de.mxapplications.androiddrawersheet;
+
+import android.app.Activity;
+import android.os.SystemClock;
+import android.util.AttributeSet;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewGroup;
+
+import org.robolectric.Robolectric;
+import org.robolectric.util.Scheduler;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hosts drawers in a Robolectric activity and simulates frames by advancing its paused main looper.
+ */
+final class DrawerTestHarness {
+    static final int WIDTH = 480;
+    static final int HEIGHT = 800;
+    static final long FRAME_MILLIS = 16;
+    static final long SETTLE_TIMEOUT_MILLIS = 1000;
+
+    private final Scheduler mScheduler;
+    private final Activity mActivity;
+    private View mRoot;
+
+    DrawerTestHarness(){
+        mScheduler = Robolectric.getForegroundThreadScheduler();
+        mScheduler.pause();
+        mActivity = Robolectric.setupActivity(Activity.class);
+    }
+
+    Activity getActivity(){
+        return mActivity;
+    }
+
+    /***
+     * Creates a drawer with the given alignment and offset.
+     * @param alignment The name of the alignment, e.g. "bottom".
+     * @param offset The offset in pixels.
+     * @return The drawer.
+     */
+    AndroidDrawerSheet createDrawer(String alignment, int offset){
+        AttributeSet attrs = Robolectric.buildAttributeSet()
+                .addAttribute(R.attr.drawerAlignment, alignment)
+                .addAttribute(R.attr.drawerOffset, offset + "px")
+                .build();
+        return new AndroidDrawerSheet(mActivity, attrs);
+    }
+
+    /***
+     * Makes the view the content of the activity and lays it out.
+     * @param view The view.
+     */
+    void setContentView(View view){
+        mActivity.setContentView(view, new ViewGroup.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
+        mRoot = view.getRootView();
+        traverse(true);
+    }
+
+    /***
+     * Runs all frames of the given time span.
+     * @param millis The time span in milliseconds.
+     */
+    void advance(long millis){
+        while(millis > 0){
+            long step = Math.min(FRAME_MILLIS, millis);
+            mScheduler.advanceBy(step, TimeUnit.MILLISECONDS);
+            traverse(false);
+            millis -= step;
+        }
+    }
+
+    void dispatch(long downTime, int action, float x, float y){
+        dispatch(downTime, SystemClock.uptimeMillis(), action, x, y);
+    }
+
+    void dispatch(long downTime, long eventTime, int action, float x, float y){
+        MotionEvent event = MotionEvent.obtain(downTime, eventTime, action, x, y, 0);
+        mRoot.dispatchTouchEvent(event);
+        event.recycle();
+    }
+
+    /***
+     * Drags from a point in window coordinates by the given distance and runs the frames of the settle animation.
+     */
+    void drag(float x, float y, float dx, float dy, int moves){
+        long downTime = SystemClock.uptimeMillis();
+        dispatch(downTime, MotionEvent.ACTION_DOWN, x, y);
+        for(int i = 1; i <= moves; i++){
+            advance(FRAME_MILLIS);
+            dispatch(downTime, MotionEvent.ACTION_MOVE, x + dx * i / moves, y + dy * i / moves);
+        }
+        advance(FRAME_MILLIS * 10);
+        dispatch(downTime, MotionEvent.ACTION_UP, x + dx, y + dy);
+        advance(SETTLE_TIMEOUT_MILLIS);
+    }
+
+    /***
+     * Returns a point in window coordinates at the given fractions of the width and height of the view.
+     */
+    static float[] pointIn(View view, float fractionX, float fractionY){
+        int[] location = new int[2];
+        view.getLocationInWindow(location);
+        return new float[]{location[0] + view.getWidth() * fractionX, location[1] + view.getHeight() * fractionY};
+    }
+
+    private void traverse(boolean force){
+        if(force || mRoot.isLayoutRequested()) {
+            mRoot.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY), View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+            mRoot.layout(0, 0, WIDTH, HEIGHT);
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package de.mxapplications.androiddrawersheet;
+
+import android.view.MotionEvent;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reads recorded gestures and their budgets from a corpus file. The format is described at the top of src/test/resources/gestures.txt.
+ */
+final class GestureCorpus {
+    private static final int[] ALL_ALIGNMENTS = new int[]{AndroidDrawerSheet.ALIGNMENT_TOP, AndroidDrawerSheet.ALIGNMENT_BOTTOM,
+            AndroidDrawerSheet.ALIGNMENT_LEFT, AndroidDrawerSheet.ALIGNMENT_RIGHT};
+
+    private GestureCorpus(){
+    }
+
+    /***
+     * A recorded gesture with its expected outcome and budgets. A budget of -1 is not checked.
+     */
+    static final class Gesture{
+        String name;
+        int[] alignments;
+        boolean startOpen = false;
+        boolean stickyDrag = true;
+        int minimumOpeningPercent = 0;
+        int minimumClosingPercent = 0;
+        int positioningMode = AndroidDrawerSheet.POSITIONING_MODE_RESIZE;
+        int[] actions;
+        long[] times;
+        float[] percents;
+        int eventCount;
+        boolean expectOpen;
+        float expectedRestPercent = -1;
+        int measureBudget = -1;
+        int layoutBudget = -1;
+        int resizeBudget = -1;
+        int interactionBudget = -1;
+        int frameBudget = -1;
+
+        private void addEvent(int action, long time, float percent){
+            if(eventCount == actions.length){
+                actions = Arrays.copyOf(actions, eventCount * 2);
+                times = Arrays.copyOf(times, eventCount * 2);
+                percents = Arrays.copyOf(percents, eventCount * 2);
+            }
+            actions[eventCount] = action;
+            times[eventCount] = time;
+            percents[eventCount] = percent;
+            eventCount++;
+        }
+    }
+
+    static List<Gesture> load(String resource) throws IOException {
+        InputStream stream = GestureCorpus.class.getClassLoader().getResourceAsStream(resource);
+        if(stream == null){
+            throw new IOException("Gesture corpus not found: " + resource);
+        }
+        List<Gesture> gestures = new ArrayList<Gesture>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(stream, "UTF-8"));
+        try {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                try {
+                    gestures.add(parse(line));
+                } catch (RuntimeException e) {
+                    throw new IOException(resource + ":" + lineNumber + ": " + e.getMessage(), e);
+                }
+            }
+        }finally {
+            reader.close();
+        }
+        return gestures;
+    }
+
+    private static Gesture parse(String line){
+        String[] columns = line.split("\\|");
+        if(columns.length != 5){
+            throw new IllegalArgumentException("Expected 5 columns but found " + columns.length);
+        }
+        Gesture gesture = new Gesture();
+        gesture.name = columns[0].trim();
+        gesture.alignments = parseAlignments(columns[1].trim());
+        for(String setting : tokens(columns[2])){
+            parseSetting(gesture, setting);
+        }
+        gesture.actions = new int[16];
+        gesture.times = new long[16];
+        gesture.percents = new float[16];
+        for(String event : tokens(columns[3])){
+            parseEvent(gesture, event);
+        }
+        String[] expectation = tokens(columns[4]);
+        parseState(gesture, expectation[0]);
+        for(int i = 1; i < expectation.length; i++){
+            parseBudget(gesture, expectation[i]);
+        }
+        return gesture;
+    }
+
+    private static String[] tokens(String column){
+        column = column.trim();
+        return column.isEmpty() ? new String[0] : column.split("\\s+");
+    }
+
+    private static int[] parseAlignments(String column){
+        if(column.equals("*")){
+            return ALL_ALIGNMENTS;
+        }
+        String[] names = column.split(",");
+        int[] alignments = new int[names.length];
+        for(int i = 0; i < names.length; i++){
+            String name = names[i].trim();
+            if(name.equals("top")){
+                alignments[i] = AndroidDrawerSheet.ALIGNMENT_TOP;
+            }else if(name.equals("bottom")){
+                alignments[i] = AndroidDrawerSheet.ALIGNMENT_BOTTOM;
+            }else if(name.equals("left")){
+                alignments[i] = AndroidDrawerSheet.ALIGNMENT_LEFT;
+            }else if(name.equals("right")){
+                alignments[i] = AndroidDrawerSheet.ALIGNMENT_RIGHT;
+            }else{
+                throw new IllegalArgumentException("Unknown alignment: " + name);
+            }
+        }
+        return alignments;
+    }
+
+    private static void parseSetting(Gesture gesture, String setting){
+        int separator = setting.indexOf('=');
+        if(separator < 0){
+            throw new IllegalArgumentException("Malformed setting: " + setting);
+        }
+        String key = setting.substring(0, separator);
+        String value = setting.substring(separator + 1);
+        if(key.equals("start")){
+            gesture.startOpen = value.equals("open");
+        }else if(key.equals("sticky")){
+            gesture.stickyDrag = Boolean.parseBoolean(value);
+        }else if(key.equals("minOpen")){
+            gesture.minimumOpeningPercent = Integer.parseInt(value);
+        }else if(key.equals("minClose")){
+            gesture.minimumClosingPercent = Integer.parseInt(value);
+        }else if(key.equals("mode")){
+            gesture.positioningMode = value.equals("translate") ? AndroidDrawerSheet.POSITIONING_MODE_TRANSLATE : AndroidDrawerSheet.POSITIONING_MODE_RESIZE;
+        }else{
+            throw new IllegalArgumentException("Unknown setting: " + key);
+        }
+    }
+
+    private static void parseEvent(Gesture gesture, String event){
+        int action;
+        switch (event.charAt(0)){
+            case 'd':
+                action = MotionEvent.ACTION_DOWN;
+                break;
+            case 'm':
+                action = MotionEvent.ACTION_MOVE;
+                break;
+            case 'u':
+                action = MotionEvent.ACTION_UP;
+                break;
+            case 'c':
+                action = MotionEvent.ACTION_CANCEL;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown event: " + event);
+        }
+        int at = event.indexOf('@');
+        if(at < 0){
+            throw new IllegalArgumentException("Malformed event: " + event);
+        }
+        String time = event.substring(1, at);
+        String position = event.substring(at + 1);
+        int count = time.indexOf('x');
+        if(count < 0){
+            gesture.addEvent(action, Long.parseLong(time), Float.parseFloat(position));
+            return;
+        }
+        // A series of moves that is evenly spread between its first and its last time and position.
+        int moves = Integer.parseInt(time.substring(count + 1));
+        String[] times = time.substring(0, count).split("-");
+        String[] positions = position.split("-");
+        long firstTime = Long.parseLong(times[0]);
+        long lastTime = Long.parseLong(times[1]);
+        float firstPercent = Float.parseFloat(positions[0]);
+        float lastPercent = Float.parseFloat(positions[1]);
+        for(int i = 0; i < moves; i++){
+            float fraction = moves == 1 ? 1f : i / (float) (moves - 1);
+            gesture.addEvent(action, firstTime + Math.round((lastTime - firstTime) * fraction), firstPercent + (lastPercent - firstPercent) * fraction);
+        }
+    }
+
+    private static void parseState(Gesture gesture, String state){
+        int at = state.indexOf('@');
+        String name = at < 0 ? state : state.substring(0, at);
+        if(name.equals("open")){
+            gesture.expectOpen = true;
+        }else if(name.equals("closed")){
+            gesture.expectOpen = false;
+        }else{
+            throw new IllegalArgumentException("Unknown state: " + state);
+        }
+        if(at >= 0){
+            gesture.expectedRestPercent = Float.parseFloat(state.substring(at + 1));
+        }
+    }
+
+    private static void parseBudget(Gesture gesture, String budget){
+        int separator = budget.indexOf("<=");
+        if(separator < 0){
+            throw new IllegalArgumentException("Malformed budget: " + budget);
+        }
+        String key = budget.substring(0, separator);
+        int value = Integer.parseInt(budget.substring(separator + 2));
+        if(key.equals("measure")){
+            gesture.measureBudget = value;
+        }else if(key.equals("layout")){
+            gesture.layoutBudget = value;
+        }else if(key.equals("resize")){
+            gesture.resizeBudget = value;
+        }else if(key.equals("interaction")){
+            gesture.interactionBudget = value;
+        }else if(key.equals("frames")){
+            gesture.frameBudget = value;
+        }else{
+            throw new IllegalArgumentException("Unknown budget: " + key);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package de.mxapplications.androiddrawersheet;
+
+import android.os.SystemClock;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewGroup;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that the down event of a touch, which reaches the drawer both in onInterceptTouchEvent and in onTouchEvent, is counted as one gesture.
+ */
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class GestureCountTest {
+    private static final int DRAG_DISTANCE = 500;
+    private static final int MOVES = 10;
+
+    private DrawerTestHarness mHarness;
+    private AndroidDrawerSheet mDrawerSheet;
+    private DrawerMetrics mMetrics;
+
+    @Before
+    public void setUp(){
+        mHarness = new DrawerTestHarness();
+        mDrawerSheet = mHarness.createDrawer("bottom", 0);
+        mDrawerSheet.addView(new View(mHarness.getActivity()), ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT);
+        mHarness.setContentView(mDrawerSheet);
+        mDrawerSheet.openDrawer(false);
+        mHarness.advance(DrawerTestHarness.FRAME_MILLIS);
+        mMetrics = new DrawerMetrics();
+        mDrawerSheet.setDrawerMetrics(mMetrics);
+    }
+
+    @Test
+    public void tapIsOneGesture() throws Exception {
+        float[] point = DrawerTestHarness.pointIn(mDrawerSheet, 0.5f, 0.25f);
+        long downTime = SystemClock.uptimeMillis();
+        mHarness.dispatch(downTime, MotionEvent.ACTION_DOWN, point[0], point[1]);
+        mHarness.advance(DrawerTestHarness.FRAME_MILLIS);
+        mHarness.dispatch(downTime, MotionEvent.ACTION_UP, point[0], point[1]);
+        mHarness.advance(DrawerTestHarness.FRAME_MILLIS);
+
+        assertEquals(1, mMetrics.snapshot().getGestureCount());
+        assertTrue(mDrawerSheet.isDrawerOpen());
+    }
+
+    @Test
+    public void dragIsOneGesture() throws Exception {
+        float[] point = DrawerTestHarness.pointIn(mDrawerSheet, 0.5f, 0.25f);
+        mHarness.drag(point[0], point[1], 0, DRAG_DISTANCE, MOVES);
+
+        assertEquals(1, mMetrics.snapshot().getGestureCount());
+        assertFalse(mDrawerSheet.isDrawerOpen());
+    }
+}
@@ -0,0 +1,197 @@
+package de.mxapplications.androiddrawersheet;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.view.View;
+import android.view.ViewGroup;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Replays the recorded gestures of src/test/resources/gestures.txt against a real AndroidDrawerSheet for each alignment and fails if a gesture
+ * does not end in the expected state, is not counted as exactly one gesture by {@link DrawerMetrics}, or exceeds its budget of measure and
+ * layout passes of the drawer content, of listener invocations, or of frames counted by DrawerMetrics.
+ * The drawers are hosted and the frames simulated by {@link DrawerTestHarness}.
+ */
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class GestureReplayTest {
+    private static final String CORPUS = "gestures.txt";
+    private static final int OFFSET = 48;
+    private static final float REST_TOLERANCE_PERCENT = 5;
+
+    @Test
+    public void replayCorpus() throws Exception {
+        List<GestureCorpus.Gesture> gestures = GestureCorpus.load(CORPUS);
+        assertFalse("The gesture corpus is empty", gestures.isEmpty());
+        List<String> failures = new ArrayList<String>();
+        for(GestureCorpus.Gesture gesture : gestures){
+            for(int alignment : gesture.alignments){
+                replay(gesture, alignment, failures);
+            }
+        }
+        StringBuilder message = new StringBuilder();
+        for(String failure : failures){
+            message.append('\n').append(failure);
+        }
+        assertTrue(failures.size() + " gestures failed:" + message, failures.isEmpty());
+    }
+
+    private void replay(GestureCorpus.Gesture gesture, int alignment, List<String> failures){
+        DrawerTestHarness harness = new DrawerTestHarness();
+        AndroidDrawerSheet drawerSheet = harness.createDrawer(alignmentName(alignment), OFFSET);
+        CountingView content = new CountingView(harness.getActivity());
+        drawerSheet.addView(content, ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT);
+        harness.setContentView(drawerSheet);
+
+        boolean vertical = alignment == AndroidDrawerSheet.ALIGNMENT_TOP || alignment == AndroidDrawerSheet.ALIGNMENT_BOTTOM;
+        int extent = vertical ? drawerSheet.getHeight() : drawerSheet.getWidth();
+        drawerSheet.setStickyDrag(gesture.stickyDrag)
+                .setMinimumOpeningSize(extent * gesture.minimumOpeningPercent / 100)
+                .setMinimumClosingSize(extent * gesture.minimumClosingPercent / 100)
+                .setPositioningMode(gesture.positioningMode);
+        if(gesture.startOpen){
+            drawerSheet.openDrawer(false);
+        }
+        harness.advance(DrawerTestHarness.FRAME_MILLIS);
+
+        CountingListener listener = new CountingListener();
+        drawerSheet.addOnResizeListener(listener);
+        drawerSheet.addOnInteractionListener(listener);
+        DrawerMetrics metrics = new DrawerMetrics();
+        drawerSheet.setDrawerMetrics(metrics);
+        content.mMeasures = 0;
+        content.mLayouts = 0;
+
+        int[] location = new int[2];
+        drawerSheet.getLocationInWindow(location);
+        long downTime = SystemClock.uptimeMillis();
+        for(int i = 0; i < gesture.eventCount; i++){
+            long eventTime = downTime + gesture.times[i];
+            harness.advance(eventTime - SystemClock.uptimeMillis());
+            float distance = gesture.percents[i] * extent / 100f;
+            float x = location[0] + drawerSheet.getWidth() / 2f;
+            float y = location[1] + drawerSheet.getHeight() / 2f;
+            switch (alignment){
+                case AndroidDrawerSheet.ALIGNMENT_TOP:
+                    y = location[1] + distance;
+                    break;
+                case AndroidDrawerSheet.ALIGNMENT_BOTTOM:
+                    y = location[1] + drawerSheet.getHeight() - distance;
+                    break;
+                case AndroidDrawerSheet.ALIGNMENT_LEFT:
+                    x = location[0] + distance;
+                    break;
+                case AndroidDrawerSheet.ALIGNMENT_RIGHT:
+                    x = location[0] + drawerSheet.getWidth() - distance;
+                    break;
+            }
+            harness.dispatch(downTime, eventTime, gesture.actions[i], x, y);
+        }
+        harness.advance(DrawerTestHarness.SETTLE_TIMEOUT_MILLIS);
+
+        String name = gesture.name + "/" + alignmentName(alignment);
+        if(drawerSheet.isDrawerOpen() != gesture.expectOpen){
+            failures.add(name + ": drawer is " + (drawerSheet.isDrawerOpen() ? "open" : "closed"));
+        }
+        if(gesture.expectedRestPercent >= 0){
+            float restPercent = (OFFSET + drawerSheet.getDrawerProgress() * (extent - OFFSET)) * 100f / extent;
+            if(Math.abs(restPercent - gesture.expectedRestPercent) > REST_TOLERANCE_PERCENT){
+                failures.add(name + ": drawer rests at " + restPercent + "% instead of " + gesture.expectedRestPercent + "%");
+            }
+        }
+        checkBudget(failures, name, "measure", content.mMeasures, gesture.measureBudget);
+        checkBudget(failures, name, "layout", content.mLayouts, gesture.layoutBudget);
+        checkBudget(failures, name, "resize", listener.mResizes, gesture.resizeBudget);
+        checkBudget(failures, name, "interaction", listener.mInteractions, gesture.interactionBudget);
+        DrawerMetrics.Snapshot snapshot = metrics.snapshot();
+        // The measured counts end up in the test report, so the budgets of the corpus can be set from them.
+        System.out.println(name + ": measure=" + content.mMeasures + " layout=" + content.mLayouts + " resize=" + listener.mResizes
+                + " interaction=" + listener.mInteractions + " frames=" + snapshot.getTotal().getFrames() + " gestures=" + snapshot.getGestureCount());
+        if(snapshot.getGestureCount() != 1){
+            failures.add(name + ": " + snapshot.getGestureCount() + " gestures counted instead of 1");
+        }
+        checkBudget(failures, name, "frames", (int) snapshot.getTotal().getFrames(), gesture.frameBudget);
+    }
+
+    private static void checkBudget(List<String> failures, String name, String budgetName, int count, int budget){
+        if(budget >= 0 && count > budget){
+            failures.add(name + ": " + count + " " + budgetName + " exceeds the budget of " + budget);
+        }
+    }
+
+    private static String alignmentName(int alignment){
+        switch (alignment){
+            case AndroidDrawerSheet.ALIGNMENT_TOP:
+                return "top";
+            case AndroidDrawerSheet.ALIGNMENT_BOTTOM:
+                return "bottom";
+            case AndroidDrawerSheet.ALIGNMENT_LEFT:
+                return "left";
+            default:
+                return "right";
+        }
+    }
+
+    /***
+     * Drawer content that counts how often it is measured and laid out.
+     */
+    private static class CountingView extends View{
+        int mMeasures = 0;
+        int mLayouts = 0;
+
+        CountingView(Context context) {
+            super(context);
+        }
+
+        @Override
+        protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+            mMeasures++;
+            super.onMeasure(widthMeasureSpec, heightMeasureSpec);
+        }
+
+        @Override
+        protected void onLayout(boolean changed, int left, int top, int right, int bottom) {
+            mLayouts++;
+            super.onLayout(changed, left, top, right, bottom);
+        }
+    }
+
+    private static class CountingListener implements AndroidDrawerSheet.OnResizeListener, AndroidDrawerSheet.OnInteractionListener{
+        int mResizes = 0;
+        int mInteractions = 0;
+
+        @Override
+        public void drawerResized(int size) {
+            mResizes++;
+        }
+
+        @Override
+        public void beforeDrawerClosed() {
+            mInteractions++;
+        }
+
+        @Override
+        public void beforeDrawerOpened() {
+            mInteractions++;
+        }
+
+        @Override
+        public void afterDrawerClosed() {
+            mInteractions++;
+        }
+
+        @Override
+        public void afterDrawerOpened() {
+            mInteractions++;
+        }
+    }
+}
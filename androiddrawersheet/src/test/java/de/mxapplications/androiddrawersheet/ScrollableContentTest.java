@@ -0,0 +1,72 @@
+package de.mxapplications.androiddrawersheet;
+
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.ScrollView;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.*;
+
+/**
+ * Drags an open bottom drawer whose content is a ScrollView and checks that the ScrollView scrolls first and the drawer only takes over
+ * once the ScrollView cannot scroll any further in the direction of the drag.
+ */
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class ScrollableContentTest {
+    private static final int CONTENT_HEIGHT = 3000;
+    private static final int SCROLL_Y = 1000;
+    private static final int DRAG_DISTANCE = 500;
+    private static final int MOVES = 10;
+
+    private DrawerTestHarness mHarness;
+    private AndroidDrawerSheet mDrawerSheet;
+    private ScrollView mScrollView;
+
+    @Before
+    public void setUp(){
+        mHarness = new DrawerTestHarness();
+        mDrawerSheet = mHarness.createDrawer("bottom", 0);
+        mScrollView = new ScrollView(mHarness.getActivity());
+        mScrollView.addView(new View(mHarness.getActivity()), ViewGroup.LayoutParams.MATCH_PARENT, CONTENT_HEIGHT);
+        mDrawerSheet.addView(mScrollView, ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT);
+        mHarness.setContentView(mDrawerSheet);
+        mDrawerSheet.openDrawer(false);
+        mHarness.advance(DrawerTestHarness.FRAME_MILLIS);
+    }
+
+    @Test
+    public void scrollableContentScrollsFirst() throws Exception {
+        mScrollView.scrollTo(0, SCROLL_Y);
+        mHarness.advance(DrawerTestHarness.FRAME_MILLIS);
+
+        dragDown();
+
+        assertTrue("The drawer has been dragged although its content could scroll", mDrawerSheet.isDrawerOpen());
+        assertEquals(1f, mDrawerSheet.getDrawerProgress(), 0f);
+        assertTrue("The content has not scrolled", mScrollView.getScrollY() < SCROLL_Y);
+    }
+
+    @Test
+    public void drawerTakesOverAtTheEndOfTheContent() throws Exception {
+        assertEquals(0, mScrollView.getScrollY());
+
+        dragDown();
+
+        assertFalse("The drawer has not been dragged although its content could not scroll", mDrawerSheet.isDrawerOpen());
+        assertEquals(0, mScrollView.getScrollY());
+    }
+
+    /***
+     * Drags from the upper part of the drawer towards its closed position, further than half of the drawer.
+     */
+    private void dragDown(){
+        float[] point = DrawerTestHarness.pointIn(mDrawerSheet, 0.5f, 0.25f);
+        mHarness.drag(point[0], point[1], 0, DRAG_DISTANCE, MOVES);
+    }
+}
@@ -9,6 +9,7 @@ import android.widget.Button;
 import android.widget.ImageButton;
 
 import de.mxapplications.androiddrawersheet.AndroidDrawerSheet;
+import de.mxapplications.androiddrawersheet.DrawerSheetCoordinator;
 
 public class AndroidDrawerSheetActivity extends AppCompatActivity {
     private final static String LOG_TAG="Example Activity";
@@ -28,6 +29,12 @@ public class AndroidDrawerSheetActivity extends AppCompatActivity {
         final AndroidDrawerSheet rightDrawerSheet = (AndroidDrawerSheet)findViewById(R.id.right_drawer);
         final AndroidDrawerSheet bottomDrawerSheet = (AndroidDrawerSheet)findViewById(R.id.bottom_drawer);
 
+        new DrawerSheetCoordinator(DrawerSheetCoordinator.POLICY_SINGLE_OPEN)
+                .register(topDrawerSheet)
+                .register(leftDrawerSheet)
+                .register(rightDrawerSheet)
+                .register(bottomDrawerSheet);
+
         Button rightDrawerCloseButton = (Button)findViewById(R.id.right_drawer_close_button);
 
         topButton.setOnClickListener(new View.OnClickListener() {
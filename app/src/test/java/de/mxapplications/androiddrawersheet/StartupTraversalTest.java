@@ -0,0 +1,78 @@
+package de.mxapplications.androiddrawersheetexample;
+
+import android.app.Activity;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.view.View;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.util.ActivityController;
+
+import de.mxapplications.androiddrawersheet.AndroidDrawerSheet;
+import de.mxapplications.androiddrawersheet.DrawerMetrics;
+
+import static org.junit.Assert.*;
+
+/**
+ * Starts the example activity with its four drawers and fails if the first frame needs more than one traversal, i.e. if a drawer
+ * changes its layout parameters while the first frame is drawn, or if a drawer is laid out more than once.
+ */
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class StartupTraversalTest {
+    private static final int WIDTH = 480;
+    private static final int HEIGHT = 800;
+    private static final int MAX_TRAVERSALS = 10;
+    private static final int[] DRAWER_IDS = new int[]{R.id.top_drawer, R.id.left_drawer, R.id.right_drawer, R.id.bottom_drawer};
+
+    @Test
+    public void startupTakesOneTraversal() throws Exception {
+        ActivityController<AndroidDrawerSheetActivity> controller = Robolectric.buildActivity(AndroidDrawerSheetActivity.class).create();
+        Activity activity = controller.get();
+        DrawerMetrics[] metrics = new DrawerMetrics[DRAWER_IDS.length];
+        for(int i = 0; i < DRAWER_IDS.length; i++){
+            metrics[i] = new DrawerMetrics();
+            ((AndroidDrawerSheet) activity.findViewById(DRAWER_IDS[i])).setDrawerMetrics(metrics[i]);
+        }
+        controller.start().resume().visible();
+
+        View root = activity.getWindow().getDecorView();
+        Canvas canvas = new Canvas(Bitmap.createBitmap(WIDTH, HEIGHT, Bitmap.Config.ARGB_8888));
+        if(root.getWidth() == 0 || root.isLayoutRequested()){
+            traverse(root);
+        }
+        drawFrame(root, canvas);
+
+        int extraTraversals = 0;
+        while(root.isLayoutRequested() && extraTraversals < MAX_TRAVERSALS){
+            traverse(root);
+            drawFrame(root, canvas);
+            extraTraversals++;
+        }
+        assertEquals("Traversals after the first frame", 0, extraTraversals);
+
+        for(int i = 0; i < DRAWER_IDS.length; i++){
+            String name = activity.getResources().getResourceEntryName(DRAWER_IDS[i]);
+            DrawerMetrics.Counters total = metrics[i].snapshot().getTotal();
+            assertEquals(name + " layout passes", 1, total.getLayoutPasses());
+        }
+    }
+
+    private static void traverse(View root){
+        root.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY), View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        root.layout(0, 0, WIDTH, HEIGHT);
+    }
+
+    /***
+     * Draws a frame like the view hierarchy would, including the pre-draw callbacks, and runs everything that has been posted meanwhile.
+     */
+    private static void drawFrame(View root, Canvas canvas){
+        root.getViewTreeObserver().dispatchOnPreDraw();
+        root.draw(canvas);
+        Robolectric.flushForegroundThreadScheduler();
+    }
+}